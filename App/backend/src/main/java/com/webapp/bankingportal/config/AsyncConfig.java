@@ -0,0 +1,152 @@
+package com.webapp.bankingportal.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.webapp.bankingportal.enums.RejectionPolicy;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.val;
+
+/**
+ * One executor per workload, so a slow mail server, geolocation API or
+ * export only holds up its own work, never the request threads or the other
+ * workloads. Each has a fixed number of threads named after it, a bounded
+ * queue and a policy for work beyond the queue: abort fails the submission,
+ * caller-runs makes the submitting thread do the work itself.
+ *
+ * Spring Boot publishes the pool size, active count and queue depth of each
+ * as executor.* metrics tagged with the bean name; executor.rejected counts
+ * the submissions each one refused.
+ *
+ * With spring.threads.virtual.enabled on Java 21, requests and unqualified
+ * @Async work run on virtual threads, and so do geolocation lookups and
+ * exports, still bounded by their pools. Notifications stay on platform
+ * threads: Jakarta Mail holds monitors on the transport while it talks to
+ * the server, which would pin the carrier of a virtual thread for every
+ * send. Hashing is CPU-bound and gains nothing from virtual threads.
+ */
+@Configuration
+public class AsyncConfig {
+
+    public static final String NOTIFICATION_EXECUTOR = "notificationExecutor";
+    public static final String GEOLOCATION_EXECUTOR = "geolocationExecutor";
+    public static final String REPORTING_EXECUTOR = "reportingExecutor";
+    public static final String HASHING_EXECUTOR = "hashingExecutor";
+
+    /**
+     * Declared explicitly, as Spring Boot backs off from its own once other
+     * executors exist; unqualified @Async methods keep running on it.
+     */
+    @Bean(name = { "applicationTaskExecutor", "taskExecutor" })
+    public AsyncTaskExecutor applicationTaskExecutor(
+            Environment environment,
+            ThreadPoolTaskExecutorBuilder threadPoolTaskExecutorBuilder,
+            SimpleAsyncTaskExecutorBuilder simpleAsyncTaskExecutorBuilder) {
+
+        return Threading.VIRTUAL.isActive(environment)
+                ? simpleAsyncTaskExecutorBuilder.build()
+                : threadPoolTaskExecutorBuilder.build();
+    }
+
+    @Bean(NOTIFICATION_EXECUTOR)
+    public ThreadPoolTaskExecutor notificationExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${async.notification.threads:4}") int threads,
+            @Value("${async.notification.queue-capacity:1000}") int queueCapacity,
+            @Value("${async.notification.rejection-policy:abort}") RejectionPolicy rejectionPolicy) {
+
+        return boundedExecutor(NOTIFICATION_EXECUTOR, "notification-", threads, queueCapacity, rejectionPolicy,
+                false, meterRegistry);
+    }
+
+    @Bean(GEOLOCATION_EXECUTOR)
+    public ThreadPoolTaskExecutor geolocationExecutor(
+            Environment environment,
+            MeterRegistry meterRegistry,
+            @Value("${async.geolocation.threads:4}") int threads,
+            @Value("${async.geolocation.queue-capacity:1000}") int queueCapacity,
+            @Value("${async.geolocation.rejection-policy:abort}") RejectionPolicy rejectionPolicy) {
+
+        return boundedExecutor(GEOLOCATION_EXECUTOR, "geolocation-", threads, queueCapacity, rejectionPolicy,
+                Threading.VIRTUAL.isActive(environment), meterRegistry);
+    }
+
+    /**
+     * Writes streamed responses such as the transaction export. Each export
+     * holds a database connection until it finishes, so the default leaves
+     * most of the connection pool to the other endpoints.
+     */
+    @Bean(REPORTING_EXECUTOR)
+    public ThreadPoolTaskExecutor reportingExecutor(
+            Environment environment,
+            MeterRegistry meterRegistry,
+            @Value("${async.reporting.threads:2}") int threads,
+            @Value("${async.reporting.queue-capacity:10}") int queueCapacity,
+            @Value("${async.reporting.rejection-policy:abort}") RejectionPolicy rejectionPolicy) {
+
+        return boundedExecutor(REPORTING_EXECUTOR, "reporting-", threads, queueCapacity, rejectionPolicy,
+                Threading.VIRTUAL.isActive(environment), meterRegistry);
+    }
+
+    /**
+     * Runs password hashes, so a burst of logins cannot take every CPU from
+     * the other endpoints.
+     */
+    @Bean(HASHING_EXECUTOR)
+    public ThreadPoolTaskExecutor hashingExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${async.hashing.threads:2}") int threads,
+            @Value("${async.hashing.queue-capacity:50}") int queueCapacity,
+            @Value("${async.hashing.rejection-policy:abort}") RejectionPolicy rejectionPolicy) {
+
+        return boundedExecutor(HASHING_EXECUTOR, "hashing-", threads, queueCapacity, rejectionPolicy,
+                false, meterRegistry);
+    }
+
+    private static ThreadPoolTaskExecutor boundedExecutor(String name, String threadNamePrefix, int threads,
+            int queueCapacity, RejectionPolicy rejectionPolicy, boolean virtualThreads, MeterRegistry meterRegistry) {
+
+        if (threads < 1 || queueCapacity < 0) {
+            throw new IllegalArgumentException(threadNamePrefix + " executor needs at least one thread");
+        }
+
+        val policy = switch (rejectionPolicy) {
+            case ABORT -> new ThreadPoolExecutor.AbortPolicy();
+            case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+        };
+        val rejections = Counter.builder("executor.rejected")
+                .tag("name", name)
+                .description("Tasks the executor refused because its threads and queue were full")
+                .register(meterRegistry);
+
+        val executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            rejections.increment();
+            policy.rejectedExecution(task, pool);
+        });
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        if (virtualThreads) {
+            // Pooled only to keep the bound and the queue of the platform thread setup
+            executor.setThreadFactory(new VirtualThreadTaskExecutor(threadNamePrefix).getVirtualThreadFactory());
+        }
+        return executor;
+    }
+
+}
@@ -0,0 +1,29 @@
+package com.webapp.bankingportal.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Writes streamed responses on the reporting executor rather than on the
+ * one shared by @Async work. Applied after Spring Boot's own configurer,
+ * which still sets the timeout from spring.mvc.async.request-timeout.
+ */
+@Configuration
+public class WebAsyncConfig implements WebMvcConfigurer {
+
+    private final ThreadPoolTaskExecutor reportingExecutor;
+
+    public WebAsyncConfig(@Qualifier(AsyncConfig.REPORTING_EXECUTOR) ThreadPoolTaskExecutor reportingExecutor) {
+        this.reportingExecutor = reportingExecutor;
+    }
+
+    @Override
+    public void configureAsyncSupport(@NonNull AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(reportingExecutor);
+    }
+
+}
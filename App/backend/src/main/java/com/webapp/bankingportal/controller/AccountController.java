@@ -1,17 +1,29 @@
 package com.webapp.bankingportal.controller;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
 
 import com.webapp.bankingportal.dto.AmountRequest;
+import com.webapp.bankingportal.dto.BalanceResponse;
 import com.webapp.bankingportal.dto.FundTransferRequest;
 import com.webapp.bankingportal.dto.PinRequest;
 import com.webapp.bankingportal.dto.PinUpdateRequest;
+import com.webapp.bankingportal.dto.TransactionFilter;
+import com.webapp.bankingportal.entity.TransactionType;
 import com.webapp.bankingportal.service.AccountService;
+import com.webapp.bankingportal.service.LedgerService;
 import com.webapp.bankingportal.service.TransactionService;
 import com.webapp.bankingportal.util.ApiMessages;
 import com.webapp.bankingportal.util.JsonUtil;
@@ -23,7 +35,12 @@ import lombok.RequiredArgsConstructor;
 import lombok.val;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -34,8 +51,13 @@ public class AccountController {
 
     private final AccountService accountService;
     private final TransactionService transactionService;
+    private final LedgerService ledgerService;
     private static final Logger log = LoggerFactory.getLogger(AccountController.class);
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final int EXPORT_FLUSH_INTERVAL = 100;
+
     @GetMapping("/pin/check")
     public ResponseEntity<Map<String, Boolean>> checkAccountPIN() {
         val isPINValid = accountService.isPinCreated(LoggedinUser.getAccountNumber());
@@ -94,11 +116,89 @@ public class AccountController {
         return ResponseEntity.ok(new ApiResponse("Transfer successful", response));
     }
 
+    @GetMapping("/balance")
+    public ResponseEntity<BalanceResponse> getBalance(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        val accountNumber = LoggedinUser.getAccountNumber();
+        val pointInTime = asOf != null ? asOf : LocalDateTime.now();
+        val balance = ledgerService.computeBalanceAsOf(accountNumber, pointInTime);
+        return ResponseEntity.ok(new BalanceResponse(accountNumber, balance, pointInTime));
+    }
+
     @GetMapping("/transactions")
-    public ResponseEntity<String> getAllTransactionsByAccountNumber() {
-        val transactions = transactionService
-                .getAllTransactionsByAccountNumber(LoggedinUser.getAccountNumber());
-        return ResponseEntity.ok(JsonUtil.toJson(transactions));
+    public ResponseEntity<String> getTransactions(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to,
+            @RequestParam(required = false) TransactionType type) {
+
+        val page = transactionService.getTransactions(LoggedinUser.getAccountNumber(),
+                new TransactionFilter(cursor, limit, from, to, type));
+
+        // The body stays a plain array for existing clients; the cursor travels in a header
+        val response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(JsonUtil.toJson(page.transactions()));
+    }
+
+    @GetMapping(value = "/transactions/export", produces = {
+            MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to,
+            @RequestParam(required = false) TransactionType type,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+
+        // The body is written on another thread, so the account is resolved here
+        val accountNumber = LoggedinUser.getAccountNumber();
+        val filter = new TransactionFilter(null, null, from, to, type);
+        val ndjson = accept != null && accept.contains(MediaType.APPLICATION_NDJSON_VALUE);
+
+        StreamingResponseBody body = out -> writeTransactions(out, accountNumber, filter, ndjson);
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    /**
+     * Writes each transaction as soon as it is read, either as one JSON array
+     * or as one JSON object per line, flushing every few rows so the client
+     * starts receiving data while the query is still running.
+     */
+    private void writeTransactions(OutputStream out, String accountNumber, TransactionFilter filter,
+            boolean ndjson) throws IOException {
+
+        try (val generator = JsonUtil.objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            if (!ndjson) {
+                generator.writeStartArray();
+            }
+
+            val count = transactionService.exportTransactions(accountNumber, filter, transaction -> {
+                try {
+                    generator.writeObject(transaction);
+                    if (ndjson) {
+                        generator.writeRaw('\n');
+                    }
+                    if (generator.getOutputContext().getEntryCount() % EXPORT_FLUSH_INTERVAL == 1) {
+                        generator.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            if (!ndjson) {
+                generator.writeEndArray();
+            }
+            log.info("Exported {} transactions", count);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
     }
 
 }
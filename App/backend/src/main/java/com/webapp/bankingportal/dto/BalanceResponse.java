@@ -0,0 +1,7 @@
+package com.webapp.bankingportal.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record BalanceResponse(String accountNumber, BigDecimal balance, LocalDateTime asOf) {
+}
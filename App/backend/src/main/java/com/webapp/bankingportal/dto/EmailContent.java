@@ -0,0 +1,9 @@
+package com.webapp.bankingportal.dto;
+
+/**
+ * Body of an email in both forms, sent as alternatives of one message.
+ *
+ * @param text Plain-text alternate for clients that do not render HTML.
+ */
+public record EmailContent(String html, String text) {
+}
@@ -0,0 +1,4 @@
+package com.webapp.bankingportal.dto;
+
+public record IdempotentResponse(String requestHash, int status, String body) {
+}
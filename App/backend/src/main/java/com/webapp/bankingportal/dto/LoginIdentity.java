@@ -0,0 +1,13 @@
+package com.webapp.bankingportal.dto;
+
+/**
+ * What a login needs to know about a user, read in a single query.
+ *
+ * @param accountId     Null if the user has no account yet.
+ * @param accountNumber Null if the user has no account yet.
+ * @param password      The stored password hash.
+ * @param tokenEpoch    Null if the user has no account yet.
+ */
+public record LoginIdentity(Long userId, Long accountId, String accountNumber, String password, String name,
+        String email, Integer tokenEpoch) {
+}
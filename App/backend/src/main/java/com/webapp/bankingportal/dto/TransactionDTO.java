@@ -3,13 +3,11 @@ package com.webapp.bankingportal.dto;
 import java.math.BigDecimal;
 import java.util.Date;
 
-import com.webapp.bankingportal.entity.Transaction;
 import com.webapp.bankingportal.entity.TransactionType;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import lombok.val;
 
 @Data
 @NoArgsConstructor
@@ -23,20 +21,4 @@ public class TransactionDTO {
     private String sourceAccountNumber;
     private String targetAccountNumber;
 
-    public TransactionDTO(Transaction transaction) {
-        this.id = transaction.getId();
-        this.amount = transaction.getAmount();
-        this.transactionType = transaction.getTransactionType();
-        this.transactionDate = transaction.getTransactionDate();
-        this.sourceAccountNumber = transaction.getSourceAccount().getAccountNumber();
-
-        val targetAccount = transaction.getTargetAccount();
-        var targetAccountNumber = "N/A";
-        if (targetAccount != null) {
-            targetAccountNumber = targetAccount.getAccountNumber();
-        }
-
-        this.targetAccountNumber = targetAccountNumber;
-    }
-
 }
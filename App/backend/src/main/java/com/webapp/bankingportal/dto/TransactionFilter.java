@@ -0,0 +1,17 @@
+package com.webapp.bankingportal.dto;
+
+import java.util.Date;
+
+import com.webapp.bankingportal.entity.TransactionType;
+
+/**
+ * Criteria for one page of transaction history. Every field is optional.
+ *
+ * @param cursor The nextCursor of the previous page.
+ * @param limit  Maximum number of transactions in the page.
+ * @param from   Only transactions at or after this instant.
+ * @param to     Only transactions before this instant.
+ * @param type   Only transactions of this type.
+ */
+public record TransactionFilter(String cursor, Integer limit, Date from, Date to, TransactionType type) {
+}
@@ -0,0 +1,9 @@
+package com.webapp.bankingportal.dto;
+
+import java.util.List;
+
+/**
+ * @param nextCursor Cursor for the following page, null on the last page.
+ */
+public record TransactionPage(List<TransactionDTO> transactions, String nextCursor) {
+}
@@ -54,6 +54,10 @@ public class Account {
     @Column(nullable = false)
     private String pin;
 
+    // Tokens carrying a lower epoch are no longer accepted
+    @Column(nullable = false)
+    private int tokenEpoch;
+
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     @NotNull
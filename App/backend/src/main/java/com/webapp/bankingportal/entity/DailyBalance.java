@@ -0,0 +1,48 @@
+package com.webapp.bankingportal.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Closing balance of an account on a day it had movements. Days without
+ * movements have no row; their closing balance is that of the last day
+ * before them.
+ */
+@Entity
+@Table(name = "account_daily_balances",
+        uniqueConstraints = @UniqueConstraint(columnNames = { "accountNumber", "balanceDate" }))
+@NoArgsConstructor
+@Data
+public class DailyBalance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 20)
+    private String accountNumber;
+
+    @Column(nullable = false)
+    private LocalDate balanceDate;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal closingBalance;
+
+    public DailyBalance(String accountNumber, LocalDate balanceDate, BigDecimal closingBalance) {
+        this.accountNumber = accountNumber;
+        this.balanceDate = balanceDate;
+        this.closingBalance = closingBalance;
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.webapp.bankingportal.entity;
+
+import java.time.LocalDateTime;
+
+import com.webapp.bankingportal.enums.EmailStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Email waiting to be sent. Rows are deleted once sent; those that keep
+ * failing stay behind as {@link EmailStatus#DEAD} for inspection, with their
+ * bodies cleared, until the sweeper purges them after
+ * email.outbox.dead-retention.
+ */
+@Entity
+@Table(name = "email_outbox", indexes = @Index(columnList = "status, nextAttemptAt"))
+@NoArgsConstructor
+@Data
+public class EmailOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    // Plain-text alternate of the HTML body, if any
+    @Lob
+    @Column(columnDefinition = "TEXT")
+    private String textBody;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private EmailStatus status = EmailStatus.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 512)
+    private String lastError;
+
+    public EmailOutbox(String recipient, String subject, String body, String textBody, LocalDateTime createdAt) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.textBody = textBody;
+        this.createdAt = createdAt;
+        this.nextAttemptAt = createdAt;
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.webapp.bankingportal.entity;
+
+import java.time.LocalDateTime;
+
+import com.webapp.bankingportal.enums.IdempotencyStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response of a completed money movement, stored under the Idempotency-Key
+ * the client sent with it so retries can be answered without replaying it.
+ * The row is claimed as PENDING before the request runs; its response status
+ * stays 0 until the request completes.
+ */
+@Entity
+@Table(name = "idempotency_keys",
+        uniqueConstraints = @UniqueConstraint(columnNames = { "accountNumber", "idempotencyKey" }),
+        indexes = @Index(columnList = "expiresAt"))
+@NoArgsConstructor
+@Data
+public class IdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String accountNumber;
+
+    @Column(nullable = false)
+    private String idempotencyKey;
+
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private IdempotencyStatus status = IdempotencyStatus.COMPLETED;
+
+    @Column(nullable = false)
+    private int responseStatus;
+
+    @Lob
+    @Column(columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+}
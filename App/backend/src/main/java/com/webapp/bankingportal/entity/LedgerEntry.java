@@ -0,0 +1,54 @@
+package com.webapp.bankingportal.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.webapp.bankingportal.enums.LedgerEntryType;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One side of a money movement. Entries are only ever inserted, always as a
+ * debit and credit pair of the same amount.
+ */
+@Entity
+@Table(name = "ledger_entries", indexes = {
+        @Index(columnList = "accountNumber, id"),
+        @Index(columnList = "accountNumber, createdAt"),
+        @Index(columnList = "transactionId")
+})
+@NoArgsConstructor
+@Data
+public class LedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long transactionId;
+
+    @Column(nullable = false, length = 20)
+    private String accountNumber;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private LedgerEntryType entryType;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+}
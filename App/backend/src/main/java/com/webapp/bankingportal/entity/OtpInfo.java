@@ -7,11 +7,14 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
+@Table(indexes = @Index(columnList = "expiresAt"))
 @NoArgsConstructor
 @Data
 public class OtpInfo {
@@ -29,10 +32,14 @@ public class OtpInfo {
     @Column
     private LocalDateTime generatedAt;
 
-    public OtpInfo(String accountNumber, String otp, LocalDateTime generatedAt) {
+    @Column
+    private LocalDateTime expiresAt;
+
+    public OtpInfo(String accountNumber, String otp, LocalDateTime generatedAt, LocalDateTime expiresAt) {
         this.accountNumber = accountNumber;
         this.otp = otp;
         this.generatedAt = generatedAt;
+        this.expiresAt = expiresAt;
     }
 
 }
@@ -0,0 +1,34 @@
+package com.webapp.bankingportal.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Rate limit window of a key shared by all instances. The row is only
+ * needed until its window closes.
+ */
+@Entity
+@Table(name = "rate_limits", indexes = @Index(columnList = "windowEnd"))
+@NoArgsConstructor
+@Data
+public class RateLimit {
+
+    @Id
+    @Column(length = 128)
+    private String limitKey;
+
+    @Column(nullable = false)
+    private int hits;
+
+    @Column(nullable = false)
+    private LocalDateTime windowEnd;
+
+}
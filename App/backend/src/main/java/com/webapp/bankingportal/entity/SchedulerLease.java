@@ -0,0 +1,32 @@
+package com.webapp.bankingportal.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Lease on a scheduled job, so only one instance runs it at a time. A lease
+ * whose lockedUntil has passed is free, even if its owner never released it.
+ */
+@Entity
+@Table(name = "scheduler_leases")
+@NoArgsConstructor
+@Data
+public class SchedulerLease {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    private String owner;
+
+    @Column(nullable = false)
+    private LocalDateTime lockedUntil;
+
+}
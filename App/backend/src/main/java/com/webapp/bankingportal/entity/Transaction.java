@@ -3,27 +3,94 @@ package com.webapp.bankingportal.entity;
 import java.math.BigDecimal;
 import java.util.Date;
 
+import com.webapp.bankingportal.dto.TransactionDTO;
+
 import jakarta.persistence.Column;
+import jakarta.persistence.ColumnResult;
+import jakarta.persistence.ConstructorResult;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedNativeQuery;
+import jakarta.persistence.SqlResultSetMapping;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(columnList = "source_account_id, transactionDate, id"),
+        @Index(columnList = "target_account_id, transactionDate, id")
+})
+@SqlResultSetMapping(name = "TransactionDTO", classes = @ConstructorResult(
+        targetClass = TransactionDTO.class,
+        columns = {
+                @ColumnResult(name = "id", type = Long.class),
+                @ColumnResult(name = "amount", type = BigDecimal.class),
+                @ColumnResult(name = "transaction_type", type = TransactionType.class),
+                @ColumnResult(name = "transaction_date", type = Date.class),
+                @ColumnResult(name = "source_account_number", type = String.class),
+                @ColumnResult(name = "target_account_number", type = String.class)
+        }))
+@NamedNativeQuery(name = Transaction.HISTORY_PAGE_QUERY, resultSetMapping = "TransactionDTO", query = "("
+        + Transaction.SOURCE_HISTORY
+        + Transaction.HISTORY_FILTERS
+        + Transaction.PAGE_FILTERS
+        + ") UNION ("
+        + Transaction.TARGET_HISTORY
+        + Transaction.HISTORY_FILTERS
+        + Transaction.PAGE_FILTERS
+        + ") ORDER BY transaction_date DESC, id DESC LIMIT :limit")
+@NamedNativeQuery(name = Transaction.HISTORY_EXPORT_QUERY, resultSetMapping = "TransactionDTO", query = "("
+        + Transaction.SOURCE_HISTORY
+        + Transaction.HISTORY_FILTERS
+        + ") UNION ("
+        + Transaction.TARGET_HISTORY
+        + Transaction.HISTORY_FILTERS
+        + ") ORDER BY transaction_date DESC, id DESC")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Transaction {
 
+    public static final String HISTORY_PAGE_QUERY = "Transaction.historyPage";
+    public static final String HISTORY_EXPORT_QUERY = "Transaction.historyExport";
+
+    // Transactions sent from and received by :accountNumber, one branch each
+    // so that each can use its own (account, date, id) index
+    static final String SOURCE_HISTORY = "SELECT t.id, t.amount, t.transaction_type, t.transaction_date, "
+            + "s.account_number AS source_account_number, "
+            + "COALESCE(ta.account_number, 'N/A') AS target_account_number "
+            + "FROM transactions t "
+            + "JOIN accounts s ON s.id = t.source_account_id "
+            + "LEFT JOIN accounts ta ON ta.id = t.target_account_id "
+            + "WHERE t.source_account_id = (SELECT a.id FROM accounts a WHERE a.account_number = :accountNumber) ";
+
+    static final String TARGET_HISTORY = "SELECT t.id, t.amount, t.transaction_type, t.transaction_date, "
+            + "s.account_number AS source_account_number, "
+            + "ta.account_number AS target_account_number "
+            + "FROM transactions t "
+            + "JOIN accounts ta ON ta.id = t.target_account_id "
+            + "LEFT JOIN accounts s ON s.id = t.source_account_id "
+            + "WHERE t.target_account_id = (SELECT a.id FROM accounts a WHERE a.account_number = :accountNumber) ";
+
+    static final String HISTORY_FILTERS = "AND (:from IS NULL OR t.transaction_date >= :from) "
+            + "AND (:to IS NULL OR t.transaction_date < :to) "
+            + "AND (:type IS NULL OR t.transaction_type = :type) ";
+
+    // Each branch of a page is cut to the page size before the branches are merged
+    static final String PAGE_FILTERS = "AND (:cursorDate IS NULL OR t.transaction_date < :cursorDate "
+            + "OR (t.transaction_date = :cursorDate AND t.id < :cursorId)) "
+            + "ORDER BY t.transaction_date DESC, t.id DESC LIMIT :limit";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -36,11 +103,11 @@ public class Transaction {
 
     private Date transactionDate;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "source_account_id", referencedColumnName = "id")
     private Account sourceAccount;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "target_account_id", referencedColumnName = "id")
     private Account targetAccount;
 }
@@ -0,0 +1,6 @@
+package com.webapp.bankingportal.enums;
+
+public enum EmailStatus {
+    PENDING,
+    DEAD
+}
\ No newline at end of file
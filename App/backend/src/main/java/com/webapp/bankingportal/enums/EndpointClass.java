@@ -0,0 +1,7 @@
+package com.webapp.bankingportal.enums;
+
+public enum EndpointClass {
+    MONEY_MOVEMENT,
+    READ,
+    AUTH
+}
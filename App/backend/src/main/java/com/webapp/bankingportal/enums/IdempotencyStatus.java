@@ -0,0 +1,6 @@
+package com.webapp.bankingportal.enums;
+
+public enum IdempotencyStatus {
+    PENDING,
+    COMPLETED
+}
@@ -0,0 +1,6 @@
+package com.webapp.bankingportal.enums;
+
+public enum LedgerEntryType {
+    DEBIT,
+    CREDIT
+}
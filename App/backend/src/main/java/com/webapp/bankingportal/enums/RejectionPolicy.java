@@ -0,0 +1,8 @@
+package com.webapp.bankingportal.enums;
+
+public enum RejectionPolicy {
+    /** Fails the submission, which the caller turns into an error or a fallback */
+    ABORT,
+    /** Runs the work on the submitting thread, which slows the submitter down */
+    CALLER_RUNS
+}
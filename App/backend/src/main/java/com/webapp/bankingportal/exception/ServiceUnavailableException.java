@@ -0,0 +1,9 @@
+package com.webapp.bankingportal.exception;
+
+public class ServiceUnavailableException extends RuntimeException {
+
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.webapp.bankingportal.exception;
+
+public class TooManyRequestsException extends RuntimeException {
+
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.webapp.bankingportal.filter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import lombok.val;
+
+/**
+ * Concurrency limit that follows the latency of the work it admits, after
+ * the gradient algorithm of Netflix's concurrency-limits. Each sample is
+ * compared with a slow moving average of past samples: while they match the
+ * limit grows by about its square root, and once samples take longer than
+ * the average times the tolerance the limit shrinks in proportion. Each
+ * step is smoothed, so a single slow request costs a tenth of the limit at
+ * most. Requests beyond the limit are refused rather than left to queue for
+ * a database connection.
+ *
+ * Samples taken with less than half the limit in flight leave the limit
+ * alone, as they say nothing about how much more load the work could take.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private static final int LONG_WINDOW = 100;
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final ReentrantLock sampleLock = new ReentrantLock();
+    private volatile double limit;
+    private double longRtt;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit || tolerance < 1) {
+            throw new IllegalArgumentException(
+                    "Concurrency limits must satisfy 1 <= min <= initial <= max, with a tolerance of at least 1");
+        }
+
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * @return the number of requests in flight including this one, or 0 if
+     *         the limit is reached and the caller must not proceed
+     */
+    public int tryAcquire() {
+        while (true) {
+            val current = inflight.get();
+            if (current >= getLimit()) {
+                return 0;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    public void release() {
+        inflight.decrementAndGet();
+    }
+
+    /**
+     * Adjusts the limit to the latency of a request that finished.
+     *
+     * @param rttNanos time the request took
+     * @param inflight requests in flight when it was admitted
+     */
+    public void onSample(long rttNanos, int inflight) {
+        if (rttNanos <= 0) {
+            return;
+        }
+
+        sampleLock.lock();
+        try {
+            val rtt = (double) rttNanos;
+            if (longRtt == 0) {
+                longRtt = rtt;
+            } else {
+                longRtt += (rtt - longRtt) / LONG_WINDOW;
+            }
+            // Forget a slow spell quickly once latency is back to normal
+            if (longRtt / rtt > 2) {
+                longRtt *= 0.95;
+            }
+
+            if (inflight < limit / 2) {
+                return;
+            }
+
+            val gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / rtt));
+            val newLimit = limit * gradient + Math.sqrt(limit);
+            limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+        } finally {
+            sampleLock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+}
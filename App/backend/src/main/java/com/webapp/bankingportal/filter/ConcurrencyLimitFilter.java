@@ -0,0 +1,151 @@
+package com.webapp.bankingportal.filter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.webapp.bankingportal.enums.EndpointClass;
+import com.webapp.bankingportal.util.ApiMessages;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import lombok.val;
+
+/**
+ * Concurrency Limit Filter
+ *
+ * Sheds load before it reaches the database. Money movement, reads and
+ * authentication each get an {@link AdaptiveConcurrencyLimit}, so a slow
+ * class of endpoints only sheds its own requests. Requests over the limit
+ * get an immediate 503 with Retry-After instead of waiting out the
+ * connection pool timeout. Runs ahead of the Spring Security chain, so a
+ * refused request costs no token check either. Other endpoints are not
+ * limited.
+ *
+ * Streamed responses give their slot back once the handler returns, as
+ * they are bounded by the reporting executor, and their latency is left
+ * out of the samples.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Set<String> MONEY_MOVEMENT_PATHS = Set.of(
+            "/api/account/deposit",
+            "/api/account/withdraw",
+            "/api/account/transfer");
+    private static final Set<String> AUTH_PATHS = Set.of(
+            "/api/users/register",
+            "/api/users/login",
+            "/api/users/generate-otp",
+            "/api/users/verify-otp");
+
+    private final boolean enabled;
+    private final String retryAfter;
+    private final Map<EndpointClass, AdaptiveConcurrencyLimit> limits = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> rejections = new EnumMap<>(EndpointClass.class);
+
+    public ConcurrencyLimitFilter(
+            @Value("${concurrency-limit.enabled:true}") boolean enabled,
+            @Value("${concurrency-limit.initial:20}") int initialLimit,
+            @Value("${concurrency-limit.min:4}") int minLimit,
+            @Value("${concurrency-limit.max:200}") int maxLimit,
+            @Value("${concurrency-limit.tolerance:2.0}") double tolerance,
+            @Value("${concurrency-limit.retry-after:PT1S}") Duration retryAfter,
+            MeterRegistry meterRegistry) {
+
+        this.enabled = enabled;
+        this.retryAfter = Long.toString(Math.max(1, retryAfter.toSeconds()));
+
+        for (val endpointClass : EndpointClass.values()) {
+            val limit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, tolerance);
+            val tag = endpointClass.name().toLowerCase().replace('_', '-');
+            limits.put(endpointClass, limit);
+            rejections.put(endpointClass, Counter.builder("concurrency.rejected")
+                    .description("Requests refused with 503 because their endpoint class was at its limit")
+                    .tag("endpoint", tag)
+                    .register(meterRegistry));
+            Gauge.builder("concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                    .description("Requests of the endpoint class allowed in flight at once")
+                    .tag("endpoint", tag)
+                    .register(meterRegistry);
+            Gauge.builder("concurrency.inflight", limit, AdaptiveConcurrencyLimit::getInflight)
+                    .description("Requests of the endpoint class in flight")
+                    .tag("endpoint", tag)
+                    .register(meterRegistry);
+        }
+    }
+
+    public AdaptiveConcurrencyLimit getLimit(EndpointClass endpointClass) {
+        return limits.get(endpointClass);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || classify(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+
+        val endpointClass = classify(request);
+        val limit = limits.get(endpointClass);
+        val inflight = limit.tryAcquire();
+        if (inflight == 0) {
+            rejections.get(endpointClass).increment();
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.getWriter().write(ApiMessages.SERVER_BUSY_ERROR.getMessage());
+            return;
+        }
+
+        val start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (!request.isAsyncStarted()) {
+                limit.onSample(System.nanoTime() - start, inflight);
+            }
+            limit.release();
+        }
+    }
+
+    private static EndpointClass classify(HttpServletRequest request) {
+        val path = request.getRequestURI().substring(request.getContextPath().length());
+        if ("GET".equals(request.getMethod())) {
+            return path.startsWith("/api/") ? EndpointClass.READ : null;
+        }
+        if (!"POST".equals(request.getMethod())) {
+            return null;
+        }
+        if (MONEY_MOVEMENT_PATHS.contains(path)) {
+            return EndpointClass.MONEY_MOVEMENT;
+        }
+        return AUTH_PATHS.contains(path) || path.startsWith("/api/auth/") ? EndpointClass.AUTH : null;
+    }
+
+}
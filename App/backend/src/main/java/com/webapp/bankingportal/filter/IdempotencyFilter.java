@@ -0,0 +1,227 @@
+package com.webapp.bankingportal.filter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Set;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.webapp.bankingportal.dto.IdempotentResponse;
+import com.webapp.bankingportal.service.IdempotencyService;
+import com.webapp.bankingportal.util.ApiMessages;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+
+/**
+ * Idempotency Filter
+ *
+ * Handles the Idempotency-Key header on money movement endpoints. A key is
+ * claimed in the database before the request reaches the controller, and the
+ * first successful response for it is stored; retries with the same key and
+ * the same body get that response back, and retries while the key is still
+ * claimed get a 409. A retry with a different body gets a 422 either way. A
+ * request refused with a client error or a 503 gives up its claim, and the
+ * claim of a request that died lapses after idempotency.pending-lease. Keys
+ * are scoped to the logged in account.
+ */
+@Component
+@RequiredArgsConstructor
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAY_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final Set<String> IDEMPOTENT_PATHS = Set.of(
+            "/api/account/deposit",
+            "/api/account/withdraw",
+            "/api/account/transfer");
+
+    private final IdempotencyService idempotencyService;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || !IDEMPOTENT_PATHS.contains(path(request))
+                || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+
+        val authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserDetails principal)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        val idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER).trim();
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST,
+                    ApiMessages.IDEMPOTENCY_KEY_INVALID_ERROR.getMessage());
+            return;
+        }
+
+        val accountNumber = principal.getUsername();
+        val cachedRequest = new CachedBodyRequest(request);
+        val requestHash = hash(path(request), cachedRequest.body);
+
+        val stored = idempotencyService.findResponse(accountNumber, idempotencyKey);
+        if (stored.isPresent()) {
+            replay(stored.get(), requestHash, response);
+            return;
+        }
+
+        if (!idempotencyService.claim(accountNumber, idempotencyKey, requestHash)) {
+            // Completed since the lookup, or still claimed by a request in flight or one that died
+            val claimedHash = idempotencyService.findRequestHash(accountNumber, idempotencyKey);
+            if (claimedHash.isPresent() && !claimedHash.get().equals(requestHash)) {
+                response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                        ApiMessages.IDEMPOTENCY_KEY_REUSED_ERROR.getMessage());
+                return;
+            }
+
+            val completed = idempotencyService.findResponse(accountNumber, idempotencyKey);
+            if (completed.isPresent()) {
+                replay(completed.get(), requestHash, response);
+            } else {
+                response.sendError(HttpServletResponse.SC_CONFLICT,
+                        ApiMessages.IDEMPOTENCY_KEY_IN_PROGRESS_ERROR.getMessage());
+            }
+            return;
+        }
+
+        // Other errors, or the chain throwing, keep the claim: whether money moved is unknown
+        val cachedResponse = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(cachedRequest, cachedResponse);
+
+        val status = HttpStatus.valueOf(cachedResponse.getStatus());
+        if (status.is2xxSuccessful()) {
+            val body = new String(cachedResponse.getContentAsByteArray(), StandardCharsets.UTF_8);
+            idempotencyService.complete(accountNumber, idempotencyKey,
+                    new IdempotentResponse(requestHash, cachedResponse.getStatus(), body));
+        } else if (status.is4xxClientError() || status == HttpStatus.SERVICE_UNAVAILABLE) {
+            idempotencyService.release(accountNumber, idempotencyKey);
+        }
+
+        cachedResponse.copyBodyToResponse();
+    }
+
+    private static void replay(IdempotentResponse stored, String requestHash, HttpServletResponse response)
+            throws IOException {
+
+        if (!stored.requestHash().equals(requestHash)) {
+            response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                    ApiMessages.IDEMPOTENCY_KEY_REUSED_ERROR.getMessage());
+            return;
+        }
+
+        response.setStatus(stored.status());
+        response.setHeader(IDEMPOTENT_REPLAY_HEADER, "true");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(stored.body());
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static String hash(String path, byte[] body) {
+        try {
+            val digest = MessageDigest.getInstance("SHA-256");
+            digest.update(path.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Reads the body up front so it can be hashed and still be read by the
+     * controller afterwards.
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            val input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The whole body is already in memory, so it is available at once
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+
+}
@@ -1,13 +1,67 @@
 package com.webapp.bankingportal.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.webapp.bankingportal.entity.Account;
+
+import jakarta.persistence.LockModeType;
+
+import java.math.BigDecimal;
 import java.util.Optional;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
 
     Optional<Account> findByAccountNumber(String accountNumber);
+
+    /**
+     * Loads the account with SELECT ... FOR UPDATE. Callers locking more than
+     * one account must do so in a consistent order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.accountNumber = :accountNumber")
+    Optional<Account> findByAccountNumberForUpdate(@Param("accountNumber") String accountNumber);
+
+    @Query("SELECT a.balance FROM Account a WHERE a.accountNumber = :accountNumber")
+    Optional<BigDecimal> findBalanceByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    /**
+     * Adds the amount to the balance in a single statement.
+     *
+     * @return the number of rows updated, 0 if the account does not exist
+     */
+    @Modifying
+    @Query(value = "UPDATE accounts SET balance = balance + :amount, updated_at = CURRENT_TIMESTAMP "
+            + "WHERE account_number = :accountNumber", nativeQuery = true)
+    int creditBalance(@Param("accountNumber") String accountNumber, @Param("amount") BigDecimal amount);
+
+    /**
+     * Subtracts the amount from the balance in a single statement, guarded so
+     * the balance can never go below zero.
+     *
+     * @return the number of rows updated, 0 if the account does not exist or
+     *         its balance is lower than the amount
+     */
+    @Modifying
+    @Query(value = "UPDATE accounts SET balance = balance - :amount, updated_at = CURRENT_TIMESTAMP "
+            + "WHERE account_number = :accountNumber AND balance >= :amount", nativeQuery = true)
+    int debitBalance(@Param("accountNumber") String accountNumber, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query(value = "UPDATE accounts SET balance = :balance, updated_at = CURRENT_TIMESTAMP "
+            + "WHERE account_number = :accountNumber", nativeQuery = true)
+    int updateBalance(@Param("accountNumber") String accountNumber, @Param("balance") BigDecimal balance);
+
+    @Query("SELECT a.tokenEpoch FROM Account a WHERE a.accountNumber = :accountNumber")
+    Optional<Integer> findTokenEpochByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    @Modifying
+    @Query(value = "UPDATE accounts SET token_epoch = token_epoch + 1 WHERE account_number = :accountNumber",
+            nativeQuery = true)
+    int incrementTokenEpoch(@Param("accountNumber") String accountNumber);
 }
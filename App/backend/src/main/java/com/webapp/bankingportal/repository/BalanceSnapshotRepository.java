@@ -0,0 +1,43 @@
+package com.webapp.bankingportal.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.webapp.bankingportal.entity.BalanceSnapshot;
+
+@Repository
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, Long> {
+
+    Optional<BalanceSnapshot> findFirstByAccountNumberOrderByIdDesc(String accountNumber);
+
+    /**
+     * Snapshot the ledger was opened with for an account that existed before
+     * it, recorded with a lastEntryId of 0.
+     */
+    @Query("SELECT s FROM BalanceSnapshot s WHERE s.accountNumber = :accountNumber AND s.lastEntryId = 0")
+    Optional<BalanceSnapshot> findOpeningSnapshot(@Param("accountNumber") String accountNumber);
+
+    /**
+     * Adds a snapshot for every account with entries after its latest
+     * snapshot, folding in all entries up to and including lastEntryId.
+     *
+     * @return the number of snapshots written
+     */
+    @Modifying
+    @Query(value = "INSERT INTO account_balance_snapshots (account_number, balance, last_entry_id, created_at) "
+            + "SELECT e.account_number, "
+            + "COALESCE(s.balance, 0) + SUM(CASE WHEN e.entry_type = 'CREDIT' THEN e.amount ELSE -e.amount END), "
+            + ":lastEntryId, :createdAt "
+            + "FROM ledger_entries e "
+            + "LEFT JOIN account_balance_snapshots s ON s.id = ("
+            + "SELECT MAX(s2.id) FROM account_balance_snapshots s2 WHERE s2.account_number = e.account_number) "
+            + "WHERE e.id > COALESCE(s.last_entry_id, 0) AND e.id <= :lastEntryId "
+            + "GROUP BY e.account_number, s.balance", nativeQuery = true)
+    int checkpoint(@Param("lastEntryId") long lastEntryId, @Param("createdAt") LocalDateTime createdAt);
+}
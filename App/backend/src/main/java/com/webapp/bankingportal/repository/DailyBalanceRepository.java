@@ -0,0 +1,57 @@
+package com.webapp.bankingportal.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.webapp.bankingportal.entity.DailyBalance;
+
+@Repository
+public interface DailyBalanceRepository extends JpaRepository<DailyBalance, Long> {
+
+    Optional<DailyBalance> findByAccountNumberAndBalanceDate(String accountNumber, LocalDate balanceDate);
+
+    Optional<DailyBalance> findFirstByAccountNumberAndBalanceDateBeforeOrderByBalanceDateDesc(
+            String accountNumber, LocalDate balanceDate);
+
+    Optional<DailyBalance> findFirstByAccountNumberOrderByBalanceDateAsc(String accountNumber);
+
+    /**
+     * Sets the closing balance of the day to the current account balance.
+     * Must run in the transaction that changed the balance, while it still
+     * holds the account row lock.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO account_daily_balances (account_number, balance_date, closing_balance) "
+            + "SELECT a.account_number, :balanceDate, a.balance FROM accounts a "
+            + "WHERE a.account_number = :accountNumber "
+            + "ON DUPLICATE KEY UPDATE closing_balance = a.balance", nativeQuery = true)
+    int upsertClosingBalance(@Param("accountNumber") String accountNumber, @Param("balanceDate") LocalDate balanceDate);
+
+    /**
+     * Recomputes the closing balance of every day of the account from the
+     * ledger, adding the days with entries that have no row. Must run while
+     * the account row lock keeps new movements out.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO account_daily_balances (account_number, balance_date, closing_balance) "
+            + "SELECT days.account_number, days.balance_date, :openingBalance + COALESCE(("
+            + "SELECT SUM(CASE WHEN e.entry_type = 'CREDIT' THEN e.amount ELSE -e.amount END) "
+            + "FROM ledger_entries e "
+            + "WHERE e.account_number = days.account_number "
+            + "AND e.created_at < days.balance_date + INTERVAL 1 DAY), 0) "
+            + "FROM (SELECT d.account_number, d.balance_date FROM account_daily_balances d "
+            + "WHERE d.account_number = :accountNumber "
+            + "UNION SELECT e.account_number, DATE(e.created_at) FROM ledger_entries e "
+            + "WHERE e.account_number = :accountNumber) days "
+            + "ON DUPLICATE KEY UPDATE closing_balance = VALUES(closing_balance)", nativeQuery = true)
+    int rebuildClosingBalances(
+            @Param("accountNumber") String accountNumber,
+            @Param("openingBalance") BigDecimal openingBalance);
+}
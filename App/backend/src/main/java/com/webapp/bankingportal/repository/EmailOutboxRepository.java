@@ -0,0 +1,48 @@
+package com.webapp.bankingportal.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.webapp.bankingportal.entity.EmailOutbox;
+import com.webapp.bankingportal.enums.EmailStatus;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    List<EmailOutbox> findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAt(
+            EmailStatus status, LocalDateTime now, Limit limit);
+
+    long countByStatus(EmailStatus status);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = :status, e.attempts = :attempts, "
+            + "e.nextAttemptAt = :nextAttemptAt, e.lastError = :lastError WHERE e.id = :id")
+    int recordFailure(@Param("id") Long id, @Param("status") EmailStatus status, @Param("attempts") int attempts,
+            @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("lastError") String lastError);
+
+    /**
+     * Gives up on the email and clears its bodies, which may hold one-time
+     * codes; recipient, subject and error stay for inspection.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = :status, e.attempts = :attempts, e.lastError = :lastError, "
+            + "e.body = '', e.textBody = NULL WHERE e.id = :id")
+    int markDead(@Param("id") Long id, @Param("status") EmailStatus status, @Param("attempts") int attempts,
+            @Param("lastError") String lastError);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM email_outbox WHERE status = 'DEAD' AND created_at < :cutoff LIMIT :limit",
+            nativeQuery = true)
+    int deleteDeadBatch(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
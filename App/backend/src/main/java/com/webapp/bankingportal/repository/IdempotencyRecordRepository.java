@@ -0,0 +1,65 @@
+package com.webapp.bankingportal.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.webapp.bankingportal.entity.IdempotencyRecord;
+import com.webapp.bankingportal.enums.IdempotencyStatus;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByAccountNumberAndIdempotencyKeyAndStatusAndExpiresAtAfter(
+            String accountNumber, String idempotencyKey, IdempotencyStatus status, LocalDateTime now);
+
+    @Query("SELECT r.requestHash FROM IdempotencyRecord r WHERE r.accountNumber = :accountNumber "
+            + "AND r.idempotencyKey = :idempotencyKey AND r.expiresAt > :now")
+    Optional<String> findRequestHash(@Param("accountNumber") String accountNumber,
+            @Param("idempotencyKey") String idempotencyKey, @Param("now") LocalDateTime now);
+
+    /**
+     * Inserts a PENDING row for the key, relying on the unique key of
+     * (account_number, idempotency_key) to let only one request claim it.
+     * Until the row is completed, expiresAt is the end of the claim's lease.
+     *
+     * @return 1 if the key was claimed, 0 if a row for it already exists
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO idempotency_keys (account_number, idempotency_key, request_hash, "
+            + "status, response_status, created_at, expires_at) "
+            + "VALUES (:accountNumber, :idempotencyKey, :requestHash, 'PENDING', 0, :createdAt, :expiresAt)",
+            nativeQuery = true)
+    int claim(@Param("accountNumber") String accountNumber, @Param("idempotencyKey") String idempotencyKey,
+            @Param("requestHash") String requestHash, @Param("createdAt") LocalDateTime createdAt,
+            @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = :completed, r.responseStatus = :responseStatus, "
+            + "r.responseBody = :responseBody, r.expiresAt = :expiresAt WHERE r.accountNumber = :accountNumber "
+            + "AND r.idempotencyKey = :idempotencyKey AND r.status = :pending")
+    int complete(@Param("accountNumber") String accountNumber, @Param("idempotencyKey") String idempotencyKey,
+            @Param("responseStatus") int responseStatus, @Param("responseBody") String responseBody,
+            @Param("expiresAt") LocalDateTime expiresAt, @Param("pending") IdempotencyStatus pending, @Param("completed") IdempotencyStatus completed);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.accountNumber = :accountNumber "
+            + "AND r.idempotencyKey = :idempotencyKey AND r.status = :status")
+    int deleteByStatus(@Param("accountNumber") String accountNumber, @Param("idempotencyKey") String idempotencyKey,
+            @Param("status") IdempotencyStatus status);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.accountNumber = :accountNumber "
+            + "AND r.idempotencyKey = :idempotencyKey AND r.expiresAt <= :now")
+    int deleteExpired(@Param("accountNumber") String accountNumber, @Param("idempotencyKey") String idempotencyKey,
+            @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,59 @@
+package com.webapp.bankingportal.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.webapp.bankingportal.entity.LedgerEntry;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+
+    List<LedgerEntry> findByTransactionIdOrderById(Long transactionId);
+
+    /**
+     * Writes the debit and the credit side of a movement in one statement, so
+     * the ledger can never hold half of a movement.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO ledger_entries (transaction_id, account_number, entry_type, amount, created_at) VALUES "
+            + "(:transactionId, :debitAccountNumber, 'DEBIT', :amount, :createdAt), "
+            + "(:transactionId, :creditAccountNumber, 'CREDIT', :amount, :createdAt)", nativeQuery = true)
+    int insertEntries(
+            @Param("transactionId") Long transactionId,
+            @Param("debitAccountNumber") String debitAccountNumber,
+            @Param("creditAccountNumber") String creditAccountNumber,
+            @Param("amount") BigDecimal amount,
+            @Param("createdAt") LocalDateTime createdAt);
+
+    /**
+     * Latest snapshot of the account plus every entry written after it.
+     */
+    @Query(value = "SELECT COALESCE(s.balance, 0) + COALESCE(("
+            + "SELECT SUM(CASE WHEN e.entry_type = 'CREDIT' THEN e.amount ELSE -e.amount END) "
+            + "FROM ledger_entries e "
+            + "WHERE e.account_number = :accountNumber AND e.id > COALESCE(s.last_entry_id, 0)), 0) "
+            + "FROM (SELECT 1) one "
+            + "LEFT JOIN account_balance_snapshots s ON s.id = ("
+            + "SELECT MAX(s2.id) FROM account_balance_snapshots s2 WHERE s2.account_number = :accountNumber)",
+            nativeQuery = true)
+    BigDecimal computeBalance(@Param("accountNumber") String accountNumber);
+
+    @Query(value = "SELECT COALESCE(SUM(CASE WHEN e.entry_type = 'CREDIT' THEN e.amount ELSE -e.amount END), 0) "
+            + "FROM ledger_entries e "
+            + "WHERE e.account_number = :accountNumber AND e.created_at >= :from AND e.created_at <= :to",
+            nativeQuery = true)
+    BigDecimal sumBetween(
+            @Param("accountNumber") String accountNumber,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM LedgerEntry e WHERE e.createdAt < :cutoff")
+    long findLastEntryIdBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,14 +1,34 @@
 package com.webapp.bankingportal.repository;
 
+import java.time.LocalDateTime;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.webapp.bankingportal.entity.OtpInfo;
 
 @Repository
 public interface OtpInfoRepository extends JpaRepository<OtpInfo, Long> {
 
-    OtpInfo findByAccountNumberAndOtp(String accountNumber, String otp);
+    boolean existsByAccountNumberAndOtpAndExpiresAtAfter(String accountNumber, String otp, LocalDateTime now);
+
+    /**
+     * Saves the OTP of an account in one statement, replacing any earlier one.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO otp_info (account_number, otp, generated_at, expires_at) "
+            + "VALUES (:accountNumber, :otp, :generatedAt, :expiresAt) "
+            + "ON DUPLICATE KEY UPDATE otp = :otp, generated_at = :generatedAt, expires_at = :expiresAt",
+            nativeQuery = true)
+    int upsert(@Param("accountNumber") String accountNumber, @Param("otp") String otp,
+            @Param("generatedAt") LocalDateTime generatedAt, @Param("expiresAt") LocalDateTime expiresAt);
 
-    OtpInfo findByAccountNumber(String accountNumber);
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM otp_info WHERE expires_at < :cutoff LIMIT :limit", nativeQuery = true)
+    int deleteExpiredBatch(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
 }
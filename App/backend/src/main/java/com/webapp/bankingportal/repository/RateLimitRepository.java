@@ -0,0 +1,48 @@
+package com.webapp.bankingportal.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.webapp.bankingportal.entity.RateLimit;
+
+/**
+ * Window statements compare against the database clock, so all instances
+ * agree on when a window closes.
+ */
+@Repository
+public interface RateLimitRepository extends JpaRepository<RateLimit, String> {
+
+    /**
+     * Counts a hit, opening a new window if the key has none or its window
+     * has closed. Assignments run left to right, so both still see the old
+     * window_end.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO rate_limits (limit_key, hits, window_end) "
+            + "VALUES (:key, 1, CURRENT_TIMESTAMP(6) + INTERVAL :windowMicros MICROSECOND) "
+            + "ON DUPLICATE KEY UPDATE "
+            + "hits = IF(window_end <= CURRENT_TIMESTAMP(6), 1, hits + 1), "
+            + "window_end = IF(window_end <= CURRENT_TIMESTAMP(6), "
+            + "CURRENT_TIMESTAMP(6) + INTERVAL :windowMicros MICROSECOND, window_end)", nativeQuery = true)
+    int hit(@Param("key") String key, @Param("windowMicros") long windowMicros);
+
+    /**
+     * @return 0 if the key is within its limit, otherwise the milliseconds
+     *         until its window closes
+     */
+    @Query(value = "SELECT CASE WHEN hits > :limit "
+            + "THEN GREATEST(TIMESTAMPDIFF(MICROSECOND, CURRENT_TIMESTAMP(6), window_end) DIV 1000, 1) "
+            + "ELSE 0 END FROM rate_limits WHERE limit_key = :key", nativeQuery = true)
+    long findWaitMillis(@Param("key") String key, @Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM rate_limits WHERE window_end < :cutoff LIMIT :limit", nativeQuery = true)
+    int deleteExpiredBatch(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
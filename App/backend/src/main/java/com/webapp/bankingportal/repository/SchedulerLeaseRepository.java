@@ -0,0 +1,39 @@
+package com.webapp.bankingportal.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.webapp.bankingportal.entity.SchedulerLease;
+
+/**
+ * Lease statements compare against the database clock, so instances with
+ * skewed clocks still agree on when a lease has run out.
+ */
+@Repository
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+
+    @Modifying
+    @Query(value = "INSERT INTO scheduler_leases (name, owner, locked_until) "
+            + "VALUES (:name, NULL, CURRENT_TIMESTAMP(6)) "
+            + "ON DUPLICATE KEY UPDATE name = name", nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name);
+
+    /**
+     * Takes the lease if it is free or already ours.
+     *
+     * @return 1 if the lease is now held by the owner, 0 otherwise
+     */
+    @Modifying
+    @Query(value = "UPDATE scheduler_leases "
+            + "SET owner = :owner, locked_until = CURRENT_TIMESTAMP(6) + INTERVAL :seconds SECOND "
+            + "WHERE name = :name AND (locked_until <= CURRENT_TIMESTAMP(6) OR owner = :owner)", nativeQuery = true)
+    int acquire(@Param("name") String name, @Param("owner") String owner, @Param("seconds") long seconds);
+
+    @Modifying
+    @Query(value = "UPDATE scheduler_leases SET owner = NULL, locked_until = CURRENT_TIMESTAMP(6) "
+            + "WHERE name = :name AND owner = :owner", nativeQuery = true)
+    int release(@Param("name") String name, @Param("owner") String owner);
+}
@@ -1,7 +1,13 @@
 package com.webapp.bankingportal.repository;
 
+import java.time.LocalDateTime;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.webapp.bankingportal.entity.Account;
 import com.webapp.bankingportal.entity.Token;
@@ -14,4 +20,13 @@ public interface TokenRepository extends JpaRepository<Token, Long> {
     Token[] findAllByAccount(Account account);
 
     void deleteByToken(String token);
+
+    /**
+     * Deletes at most limit tokens that expired before the cutoff, in a
+     * transaction of its own so each batch only holds its locks briefly.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM token WHERE expiry_at < :cutoff LIMIT :limit", nativeQuery = true)
+    int deleteExpiredBatch(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
 }
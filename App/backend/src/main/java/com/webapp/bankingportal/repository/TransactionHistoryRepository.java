@@ -0,0 +1,25 @@
+package com.webapp.bankingportal.repository;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.webapp.bankingportal.dto.TransactionDTO;
+
+public interface TransactionHistoryRepository {
+
+    /**
+     * Keyset page of the account's transactions, newest first, read straight
+     * into DTOs. Rows strictly after (cursorDate, cursorId) in that order are
+     * returned; pass null for the cursor to start from the newest. Null
+     * filters are ignored.
+     */
+    List<TransactionDTO> findPage(String accountNumber, Date from, Date to, String type,
+            Date cursorDate, Long cursorId, int limit);
+
+    /**
+     * The account's whole filtered history, newest first, read through a
+     * forward-only cursor. The stream holds a connection and must be closed.
+     */
+    Stream<TransactionDTO> streamAll(String accountNumber, Date from, Date to, String type);
+}
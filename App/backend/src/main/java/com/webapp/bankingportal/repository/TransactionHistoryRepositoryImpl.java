@@ -0,0 +1,55 @@
+package com.webapp.bankingportal.repository;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+
+import com.webapp.bankingportal.dto.TransactionDTO;
+import com.webapp.bankingportal.entity.Transaction;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Runs the named native history query of {@link Transaction}, whose result
+ * set mapping builds the DTOs without loading any entity.
+ */
+public class TransactionHistoryRepositoryImpl implements TransactionHistoryRepository {
+
+    // MySQL Connector/J only streams rows one at a time for this fetch size;
+    // any other value buffers the whole result set in the driver
+    private static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TransactionDTO> findPage(String accountNumber, Date from, Date to, String type,
+            Date cursorDate, Long cursorId, int limit) {
+
+        return entityManager.createNamedQuery(Transaction.HISTORY_PAGE_QUERY, TransactionDTO.class)
+                .setParameter("accountNumber", accountNumber)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setParameter("type", type)
+                .setParameter("cursorDate", cursorDate)
+                .setParameter("cursorId", cursorId)
+                .setParameter("limit", limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<TransactionDTO> streamAll(String accountNumber, Date from, Date to, String type) {
+        return entityManager.createNamedQuery(Transaction.HISTORY_EXPORT_QUERY, TransactionDTO.class)
+                .setParameter("accountNumber", accountNumber)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setParameter("type", type)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAMING_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+}
@@ -1,15 +1,10 @@
 package com.webapp.bankingportal.repository;
 
-import java.util.List;
-
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import com.webapp.bankingportal.entity.Transaction;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    // Add any custom query methods here, if needed
-	
-    List<Transaction> findBySourceAccount_AccountNumberOrTargetAccount_AccountNumber(String sourceAccountNumber, String targetAccountNumber);
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionHistoryRepository {
 }
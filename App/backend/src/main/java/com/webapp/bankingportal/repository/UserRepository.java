@@ -3,8 +3,11 @@ package com.webapp.bankingportal.repository;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.webapp.bankingportal.dto.LoginIdentity;
 import com.webapp.bankingportal.entity.User;
 
 @Repository
@@ -15,4 +18,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByPhoneNumber(String phoneNumber);
 
     Optional<User> findByAccountAccountNumber(String accountNumber);
+
+    @Query("SELECT new com.webapp.bankingportal.dto.LoginIdentity(u.id, a.id, a.accountNumber, u.password, u.name, u.email, a.tokenEpoch) "
+            + "FROM User u LEFT JOIN u.account a WHERE u.email = :email")
+    Optional<LoginIdentity> findLoginIdentityByEmail(@Param("email") String email);
+
+    @Query("SELECT new com.webapp.bankingportal.dto.LoginIdentity(u.id, a.id, a.accountNumber, u.password, u.name, u.email, a.tokenEpoch) "
+            + "FROM Account a JOIN a.user u WHERE a.accountNumber = :accountNumber")
+    Optional<LoginIdentity> findLoginIdentityByAccountNumber(@Param("accountNumber") String accountNumber);
 }
@@ -5,7 +5,7 @@ import java.io.IOException;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -32,7 +32,6 @@ import lombok.val;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final UserDetailsService userDetailsService;
     private final TokenService tokenService;
 
     /**
@@ -74,11 +73,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         val token = requestTokenHeader.substring(7);
-        String username = null;
+        UserDetails userDetails = null;
 
         try {
-            tokenService.validateToken(token);
-            username = tokenService.getUsernameFromToken(token);
+            userDetails = tokenService.authenticate(token);
 
         } catch (InvalidTokenException e) {
             response.sendError(HttpServletResponse.SC_UNAUTHORIZED,
@@ -86,7 +84,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        val userDetails = userDetailsService.loadUserByUsername(username);
         val authToken = new UsernamePasswordAuthenticationToken(
                 userDetails, null, userDetails.getAuthorities());
 
@@ -0,0 +1,25 @@
+package com.webapp.bankingportal.security;
+
+import java.util.Collection;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import lombok.Getter;
+
+/**
+ * Principal of a request authenticated by a JWT, built from the verified
+ * claims alone. The username is the account number; there is no password
+ * because the token itself is the credential.
+ */
+@Getter
+public class JwtPrincipal extends User {
+
+    private final String tokenId;
+
+    public JwtPrincipal(String accountNumber, Collection<? extends GrantedAuthority> authorities, String tokenId) {
+        super(accountNumber, "", authorities);
+        this.tokenId = tokenId;
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.webapp.bankingportal.security;
+
+import static org.springframework.security.core.userdetails.User.withUserDetails;
+
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.webapp.bankingportal.repository.UserRepository;
+import com.webapp.bankingportal.service.IdentityService;
+import com.webapp.bankingportal.util.ApiMessages;
+
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stores the password hash Spring Security re-encodes after a successful
+ * login whose stored hash was made with a different BCrypt cost.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PasswordRehashService implements UserDetailsPasswordService {
+
+    private final IdentityService identityService;
+    private final UserRepository userRepository;
+
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        val accountNumber = userDetails.getUsername();
+        val user = userRepository.findByAccountAccountNumber(accountNumber)
+                .orElseThrow(() -> new UsernameNotFoundException(
+                        String.format(ApiMessages.USER_NOT_FOUND_BY_ACCOUNT.getMessage(), accountNumber)));
+
+        user.setPassword(newPassword);
+        userRepository.save(user);
+        identityService.evict(accountNumber);
+        log.info("Re-encoded password of account {} with the configured cost", accountNumber);
+
+        return withUserDetails(userDetails).password(newPassword).build();
+    }
+
+}
@@ -62,6 +62,7 @@ public class AuthServiceImpl implements AuthService {
     }
 
     @Override
+    @Transactional
     public ResponseEntity<String> sendOtpForPasswordReset(OtpRequest otpRequest) {
         log.info("Received OTP request for identifier: {}", otpRequest.identifier());
         val user = userService.getUserByIdentifier(otpRequest.identifier());
@@ -112,16 +113,8 @@ public class AuthServiceImpl implements AuthService {
     }
 
     private ResponseEntity<String> sendOtpEmail(User user, String accountNumber, String generatedOtp) {
-        val emailSendingFuture = otpService.sendOTPByEmail(user.getEmail(), user.getName(), accountNumber,
-                generatedOtp);
-
-        val successResponse = ResponseEntity
-                .ok(String.format(ApiMessages.OTP_SENT_SUCCESS.getMessage(), user.getEmail()));
-        val failureResponse = ResponseEntity.internalServerError()
-                .body(String.format(ApiMessages.OTP_SENT_FAILURE.getMessage(), user.getEmail()));
-
-        return emailSendingFuture.thenApply(result -> successResponse)
-                .exceptionally(e -> failureResponse).join();
+        otpService.sendOTPByEmail(user.getEmail(), user.getName(), accountNumber, generatedOtp);
+        return ResponseEntity.ok(String.format(ApiMessages.OTP_SENT_SUCCESS.getMessage(), user.getEmail()));
     }
 
     private void validateOtpRequest(OtpVerificationRequest otpVerificationRequest) {
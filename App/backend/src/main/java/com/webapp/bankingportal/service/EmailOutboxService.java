@@ -0,0 +1,19 @@
+package com.webapp.bankingportal.service;
+
+import com.webapp.bankingportal.dto.EmailContent;
+
+public interface EmailOutboxService {
+
+    /**
+     * Queues an email in the caller's transaction, so it is sent only if
+     * that transaction commits.
+     */
+    public void enqueue(String to, String subject, EmailContent content);
+
+    /**
+     * Sends due emails in batches.
+     *
+     * @return the number of emails sent, or 0 if another instance holds the lease
+     */
+    public int dispatch();
+}
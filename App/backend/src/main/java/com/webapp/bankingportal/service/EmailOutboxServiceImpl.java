@@ -0,0 +1,312 @@
+package com.webapp.bankingportal.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.webapp.bankingportal.config.AsyncConfig;
+import com.webapp.bankingportal.dto.EmailContent;
+import com.webapp.bankingportal.entity.EmailOutbox;
+import com.webapp.bankingportal.enums.EmailStatus;
+import com.webapp.bankingportal.repository.EmailOutboxRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends queued emails off the request path. A commit that queued an email
+ * wakes the dispatcher of its instance; a slower poll picks up retries and
+ * emails left by other instances. Due rows are sent in batches, each batch
+ * over a single SMTP connection. Failed rows are retried with exponential
+ * backoff until email.outbox.max-attempts is reached, after which they are
+ * kept as dead letters without their bodies, until the sweeper purges them.
+ * Sent rows are deleted straight away, so no copy of a one-time code
+ * outlives its delivery. Only the instance holding the lease dispatches, so
+ * an email is not sent twice by two instances. The lease is renewed before
+ * every batch, and dispatching stops as soon as that fails, so another
+ * instance cannot take over while a batch is being sent and marked.
+ */
+@Slf4j
+@Service
+public class EmailOutboxServiceImpl implements EmailOutboxService {
+
+    static final String LEASE_NAME = "email-outbox-dispatcher";
+    private static final int MAX_ERROR_LENGTH = 512;
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final LeaseService leaseService;
+    private final JavaMailSender mailSender;
+    private final TaskExecutor notificationExecutor;
+    private final Timer sendTimer;
+    private final Timer deliveryTimer;
+    private final Counter retryCounter;
+    private final Counter deadCounter;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private final ReentrantLock dispatching = new ReentrantLock();
+
+    @Value("${email.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${email.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${email.outbox.initial-backoff:PT10S}")
+    private Duration initialBackoff;
+
+    @Value("${email.outbox.max-backoff:PT1H}")
+    private Duration maxBackoff;
+
+    @Value("${email.outbox.lease-duration:PT1M}")
+    private Duration leaseDuration;
+
+    public EmailOutboxServiceImpl(
+            EmailOutboxRepository emailOutboxRepository,
+            LeaseService leaseService,
+            JavaMailSender mailSender,
+            @Qualifier(AsyncConfig.NOTIFICATION_EXECUTOR) TaskExecutor notificationExecutor,
+            MeterRegistry meterRegistry) {
+
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.leaseService = leaseService;
+        this.mailSender = mailSender;
+        this.notificationExecutor = notificationExecutor;
+        this.sendTimer = Timer.builder("email.outbox.send")
+                .description("Time taken to send a batch of emails over one SMTP connection")
+                .register(meterRegistry);
+        this.deliveryTimer = Timer.builder("email.outbox.delivery")
+                .description("Time from queueing an email to sending it")
+                .register(meterRegistry);
+        this.retryCounter = failureCounter(meterRegistry, "retry");
+        this.deadCounter = failureCounter(meterRegistry, "dead");
+        Gauge.builder("email.outbox.pending", pending, AtomicLong::get)
+                .description("Emails waiting to be sent")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Transactional
+    public void enqueue(String to, String subject, EmailContent content) {
+        emailOutboxRepository.save(new EmailOutbox(to, subject, content.html(), content.text(), LocalDateTime.now()));
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            wakeUp();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                wakeUp();
+            }
+        });
+    }
+
+    @Override
+    public int dispatch() {
+        dispatching.lock();
+        try {
+            return dispatchDue();
+        } finally {
+            dispatching.unlock();
+        }
+    }
+
+    /**
+     * Skipped while a woken dispatch is running, which sends whatever is due
+     * anyway, so the scheduler thread is not held up by SMTP.
+     */
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval:PT10S}")
+    public void poll() {
+        if (!dispatching.tryLock()) {
+            return;
+        }
+
+        try {
+            dispatchDue();
+        } finally {
+            dispatching.unlock();
+        }
+    }
+
+    /**
+     * Queues at most one dispatch on the notification executor, which covers
+     * any emails committed before it starts. If the executor is full the
+     * next poll sends them instead.
+     */
+    private void wakeUp() {
+        if (!wakeUpPending.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            notificationExecutor.execute(() -> {
+                wakeUpPending.set(false);
+                try {
+                    dispatch();
+                } catch (RuntimeException e) {
+                    log.error("Email dispatch failed", e);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            wakeUpPending.set(false);
+            log.warn("Email dispatch left to the next poll: {}", e.getMessage());
+        }
+    }
+
+    private int dispatchDue() {
+        // Doubles as the queue depth, and spares idle instances the lease write
+        pending.set(emailOutboxRepository.countByStatus(EmailStatus.PENDING));
+        if (pending.get() == 0 || !leaseService.tryAcquire(LEASE_NAME, leaseDuration)) {
+            return 0;
+        }
+
+        try {
+            val deadline = System.nanoTime() + leaseDuration.toNanos();
+            var sent = 0;
+            while (System.nanoTime() < deadline && leaseService.tryAcquire(LEASE_NAME, leaseDuration)) {
+                val batch = emailOutboxRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAt(
+                        EmailStatus.PENDING, LocalDateTime.now(), Limit.of(batchSize));
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                sent += send(batch);
+                if (batch.size() < batchSize) {
+                    break;
+                }
+            }
+            return sent;
+        } finally {
+            leaseService.release(LEASE_NAME);
+            pending.set(emailOutboxRepository.countByStatus(EmailStatus.PENDING));
+        }
+    }
+
+    private int send(List<EmailOutbox> batch) {
+        val emails = new ArrayList<EmailOutbox>(batch.size());
+        val messages = new ArrayList<MimeMessage>(batch.size());
+        for (val email : batch) {
+            try {
+                messages.add(toMimeMessage(email));
+                emails.add(email);
+            } catch (MessagingException e) {
+                recordFailure(email, e);
+            }
+        }
+
+        if (messages.isEmpty()) {
+            return 0;
+        }
+
+        Map<Object, Exception> failures = Collections.emptyMap();
+        val sample = Timer.start();
+        try {
+            mailSender.send(messages.toArray(MimeMessage[]::new));
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            if (failures.isEmpty()) {
+                failures = allFailed(messages, e);
+            }
+        } catch (MailException e) {
+            failures = allFailed(messages, e);
+        } finally {
+            sample.stop(sendTimer);
+        }
+
+        val now = LocalDateTime.now();
+        val sentIds = new ArrayList<Long>(emails.size());
+        for (int i = 0; i < emails.size(); i++) {
+            val email = emails.get(i);
+            val failure = failures.get(messages.get(i));
+            if (failure == null) {
+                sentIds.add(email.getId());
+                deliveryTimer.record(Duration.between(email.getCreatedAt(), now));
+            } else {
+                recordFailure(email, failure);
+            }
+        }
+
+        emailOutboxRepository.deleteAllByIdInBatch(sentIds);
+        return sentIds.size();
+    }
+
+    private MimeMessage toMimeMessage(EmailOutbox email) throws MessagingException {
+        val message = mailSender.createMimeMessage();
+        val helper = new MimeMessageHelper(message, true);
+        helper.setTo(email.getRecipient());
+        helper.setSubject(email.getSubject());
+        if (email.getTextBody() == null) {
+            helper.setText(email.getBody(), true);
+        } else {
+            helper.setText(email.getTextBody(), email.getBody());
+        }
+        return message;
+    }
+
+    private void recordFailure(EmailOutbox email, Exception failure) {
+        val attempts = email.getAttempts() + 1;
+        val backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        val error = String.valueOf(failure.getMessage());
+        val lastError = error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+
+        if (attempts >= maxAttempts) {
+            emailOutboxRepository.markDead(email.getId(), EmailStatus.DEAD, attempts, lastError);
+            deadCounter.increment();
+            log.error("Giving up on email {} to {} after {} attempts", email.getId(), email.getRecipient(), attempts,
+                    failure);
+        } else {
+            emailOutboxRepository.recordFailure(
+                    email.getId(),
+                    EmailStatus.PENDING,
+                    attempts,
+                    LocalDateTime.now().plus(backoff.compareTo(maxBackoff) < 0 ? backoff : maxBackoff),
+                    lastError);
+            retryCounter.increment();
+            log.warn("Failed to send email {} to {}, attempt {}: {}", email.getId(), email.getRecipient(), attempts,
+                    failure.getMessage());
+        }
+    }
+
+    private static Map<Object, Exception> allFailed(List<MimeMessage> messages, Exception failure) {
+        val failures = new IdentityHashMap<Object, Exception>();
+        messages.forEach(message -> failures.put(message, failure));
+        return failures;
+    }
+
+    private static Counter failureCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("email.outbox.failed")
+                .description("Failed email sends, by whether they will be retried")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+}
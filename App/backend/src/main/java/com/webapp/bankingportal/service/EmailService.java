@@ -2,14 +2,13 @@ package com.webapp.bankingportal.service;
 
 import java.util.concurrent.CompletableFuture;
 
-import org.springframework.scheduling.annotation.Async;
+import com.webapp.bankingportal.dto.EmailContent;
 
 public interface EmailService {
 
-    @Async
-    public CompletableFuture<Void> sendEmail(String to, String subject, String text);
+    public CompletableFuture<Void> sendEmail(String to, String subject, EmailContent content);
 
-    public String getLoginEmailTemplate(String name, String loginTime, String loginLocation);
+    public EmailContent getLoginEmailTemplate(String name, String loginTime, String loginLocation);
 
-    public String getOtpLoginEmailTemplate(String name, String accountNumber, String otp);
+    public EmailContent getOtpLoginEmailTemplate(String name, String accountNumber, String otp);
 }
@@ -9,6 +9,10 @@ import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import com.webapp.bankingportal.config.AsyncConfig;
+import com.webapp.bankingportal.dto.EmailContent;
+import com.webapp.bankingportal.util.EmailTemplate;
+
 import jakarta.mail.MessagingException;
 
 import lombok.val;
@@ -18,15 +22,22 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class EmailServiceImpl implements EmailService {
 
+    private static final String[] LOGIN_PARAMETERS = { "name", "loginTime", "loginLocation" };
+    private static final String[] OTP_PARAMETERS = { "name", "accountNumber", "expiryMinutes", "otp" };
+
     private final JavaMailSender mailSender;
+    private final EmailTemplate loginHtml = EmailTemplate.load("templates/email/login.html", LOGIN_PARAMETERS);
+    private final EmailTemplate loginText = EmailTemplate.load("templates/email/login.txt", LOGIN_PARAMETERS);
+    private final EmailTemplate otpHtml = EmailTemplate.load("templates/email/otp.html", OTP_PARAMETERS);
+    private final EmailTemplate otpText = EmailTemplate.load("templates/email/otp.txt", OTP_PARAMETERS);
 
     public EmailServiceImpl(JavaMailSender mailSender) {
         this.mailSender = mailSender;
     }
 
     @Override
-    @Async
-    public CompletableFuture<Void> sendEmail(String to, String subject, String text) {
+    @Async(AsyncConfig.NOTIFICATION_EXECUTOR)
+    public CompletableFuture<Void> sendEmail(String to, String subject, EmailContent content) {
         val future = new CompletableFuture<Void>();
 
         try {
@@ -35,7 +46,7 @@ public class EmailServiceImpl implements EmailService {
             helper.setTo(to);
             // From address is automatically set by Spring Boot based on your properties
             helper.setSubject(subject);
-            helper.setText(text, true); // Set the second parameter to true to send HTML content
+            helper.setText(content.text(), content.html());
             mailSender.send(message);
 
             log.info("Sent email to {}", to);
@@ -50,54 +61,18 @@ public class EmailServiceImpl implements EmailService {
     }
 
     @Override
-    public String getLoginEmailTemplate(String name, String loginTime, String loginLocation) {
-        return "<div style=\"font-family: Helvetica, Arial, sans-serif; min-width: 320px; max-width: 1000px; margin: 0 auto; overflow: auto; line-height: 2; background-color: #f1f1f1; padding: 20px;\">"
-                + "<div style=\"margin: 50px auto; width: 100%; max-width: 600px; padding: 20px; background-color: #ffffff; border-radius: 8px; box-shadow: 0 0 20px rgba(0, 0, 0, 0.1);\">"
-                + "<div style=\"border-bottom: 1px solid #ddd; padding-bottom: 10px; text-align: center;\">"
-                + "<a href=\"https://onestopbank.netlify.app/\" style=\"text-decoration: none;\">"
-                + "<img src=\"https://onestopbank.netlify.app/assets/onestoplogo.jpg\" alt=\"Secure Bank\" style=\"height: 50px; margin-bottom: 10px;\">"
-                + "</a>" + "<h1 style=\"font-size: 1.8em; color: #3f51b5; margin: 10px 0;\">Secure Bank</h1>" + "</div>"
-                + "<div style=\"padding: 20px;\">" + "<p style=\"font-size: 1.2em; color: #333;\">Hi, " + name + ",</p>"
-                + "<p style=\"font-size: 1em; color: #333;\">A login attempt was made on your account at:</p>"
-                + "<p style=\"font-size: 1em; color: #555;\">Time: <strong style=\"color: #3f51b5;\">" + loginTime
-                + "</strong></p>"
-                + "<p style=\"font-size: 1em; color: #555;\">Location: <strong style=\"color: #3f51b5;\">"
-                + loginLocation + "</strong></p>"
-                + "<p style=\"font-size: 1em; color: #333;\">If this was you, no further action is required. If you suspect any unauthorized access, please change your password immediately and contact our support team.</p>"
-                + "<p style=\"font-size: 1em; color: #555;\">Regards,<br />The Secure Bank Team</p>" + "</div>"
-                + "<hr style=\"border: none; border-top: 1px solid #ddd; margin: 20px 0;\" />"
-                + "<div style=\"text-align: center; font-size: 0.9em; color: #888;\">"
-                + "<p>Need help? Contact our support team:</p>"
-                + "<p>Email: <a href=\"mailto:onestopbank@google.com\" style=\"color: #3f51b5; text-decoration: none;\">onestopbank@google.com</a></p>"
-                + "<div style=\"margin-top: 20px;\">"
-                + "<p style=\"font-size: 1em; color: #333;\">Show your support here ❤️</p>"
-                + "<a href=\"https://github.com/abhi9720/BankingPortal-API\" style=\"margin: 0 10px; color: #3f51b5; text-decoration: none;\">GitHub</a>"
-                + "</div>" + "</div>" + "</div>" + "</div>";
+    public EmailContent getLoginEmailTemplate(String name, String loginTime, String loginLocation) {
+        return new EmailContent(
+                loginHtml.render(name, loginTime, loginLocation),
+                loginText.render(name, loginTime, loginLocation));
     }
 
     @Override
-    public String getOtpLoginEmailTemplate(String name, String accountNumber, String otp) {
-        return "<div style=\"font-family: Helvetica, Arial, sans-serif; min-width: 320px; max-width: 1000px; margin: 0 auto; overflow: auto; line-height: 2; background-color: #f1f1f1; padding: 20px;\">"
-                + "<div style=\"margin: 50px auto; width: 100%; max-width: 600px; padding: 20px; background-color: #ffffff; border-radius: 8px; box-shadow: 0 0 20px rgba(0, 0, 0, 0.1);\">"
-                + "<div style=\"border-bottom: 1px solid #ddd; padding-bottom: 10px; text-align: center;\">"
-                + "<a href=\"https://onestopbank.netlify.app/\" style=\"text-decoration: none;\">"
-                + "<img src=\"https://onestopbank.netlify.app/assets/onestoplogo.jpg\" alt=\"Secure Bank\" style=\"height: 50px; margin-bottom: 10px;\">"
-                + "</a>" + "<h1 style=\"font-size: 1.8em; color: #3f51b5; margin: 10px 0;\">Secure Bank</h1>" + "</div>"
-                + "<div style=\"padding: 20px;\">" + "<p style=\"font-size: 1.2em; color: #333;\">Hi, " + name + ",</p>"
-                + "<p style=\"font-size: 1em; color: #555;\">Account Number: <strong style=\"color: #3f51b5;\">"
-                + accountNumber + "</strong></p>"
-                + "<p style=\"font-size: 1em; color: #333;\">Thank you for choosing Secure Bank. Use the following OTP to complete your login procedures. The OTP is valid for "
-                + OtpServiceImpl.OTP_EXPIRY_MINUTES + " minutes:</p>"
-                + "<h2 style=\"background: #3f51b5; margin: 20px 0; width: max-content; padding: 10px 20px; color: #fff; border-radius: 4px;\">"
-                + otp + "</h2>" + "<p style=\"font-size: 1em; color: #555;\">Regards,<br />The Secure Bank Team</p>"
-                + "</div>" + "<hr style=\"border: none; border-top: 1px solid #ddd; margin: 20px 0;\" />"
-                + "<div style=\"text-align: center; font-size: 0.9em; color: #888;\">"
-                + "<p>Need help? Contact our support team:</p>"
-                + "<p>Email: <a href=\"mailto:onestopbank@google.com\" style=\"color: #3f51b5; text-decoration: none;\">onestopbank@google.com</a></p>"
-                + "<div style=\"margin-top: 20px;\">"
-                + "<p style=\"font-size: 1em; color: #333;\">Show your support here ❤️</p>"
-                + "<a href=\"https://github.com/abhi9720/BankingPortal-API\" style=\"margin: 0 10px; color: #3f51b5; text-decoration: none;\">GitHub</a>"
-                + "</div>" + "</div>" + "</div>" + "</div>";
+    public EmailContent getOtpLoginEmailTemplate(String name, String accountNumber, String otp) {
+        val expiryMinutes = String.valueOf(OtpServiceImpl.OTP_EXPIRY_MINUTES);
+        return new EmailContent(
+                otpHtml.render(name, accountNumber, expiryMinutes, otp),
+                otpText.render(name, accountNumber, expiryMinutes, otp));
     }
 
     public void sendEmailWithAttachment(String to, String subject, String text, String attachmentFilePath) {
@@ -2,64 +2,262 @@ package com.webapp.bankingportal.service;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.webapp.bankingportal.config.AsyncConfig;
 import com.webapp.bankingportal.dto.GeolocationResponse;
 import com.webapp.bankingportal.exception.GeolocationException;
+import com.webapp.bankingportal.util.CacheUtil;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.val;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Looks up login locations through one shared HTTP client with connect
+ * and read timeouts, caching results per network rather than per address:
+ * addresses sharing their first geo.cache.ipv4-prefix or ipv6-prefix bits
+ * share one entry, as they almost always share a location. Failed lookups
+ * are cached for geo.cache.negative-ttl so an unreachable API is not called
+ * on every login. Concurrent lookups in the same network wait for one call.
+ */
 @Service
 @Slf4j
 public class GeolocationServiceImpl implements GeolocationService {
 
-    @Value("${geo.api.url}")
-    private String apiUrl;
+    private final String apiKey;
+    private final RestClient restClient;
+    private final AsyncCache<String, Lookup> lookups;
+    private final int ipv4Prefix;
+    private final int ipv6Prefix;
 
-    @Value("${geo.api.key}")
-    private String apiKey;
+    public GeolocationServiceImpl(
+            @Value("${geo.api.url}") String apiUrl,
+            @Value("${geo.api.key}") String apiKey,
+            @Value("${geo.api.connect-timeout:PT2S}") Duration connectTimeout,
+            @Value("${geo.api.read-timeout:PT3S}") Duration readTimeout,
+            @Value("${geo.cache.ttl:PT24H}") Duration ttl,
+            @Value("${geo.cache.negative-ttl:PT5M}") Duration negativeTtl,
+            @Value("${geo.cache.maximum-size:100000}") long maximumSize,
+            @Value("${geo.cache.ipv4-prefix:24}") int ipv4Prefix,
+            @Value("${geo.cache.ipv6-prefix:48}") int ipv6Prefix,
+            MeterRegistry meterRegistry) {
+
+        if (ipv4Prefix < 0 || ipv4Prefix > 32 || ipv6Prefix < 0 || ipv6Prefix > 128) {
+            throw new IllegalArgumentException("geo.cache.ipv4-prefix must be 0-32 and ipv6-prefix 0-128");
+        }
+
+        val requestFactory = new JdkClientHttpRequestFactory(HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .build());
+        requestFactory.setReadTimeout(readTimeout);
+
+        this.apiKey = apiKey;
+        this.restClient = RestClient.builder()
+                .baseUrl(apiUrl)
+                .requestFactory(requestFactory)
+                .build();
+        this.ipv4Prefix = ipv4Prefix;
+        this.ipv6Prefix = ipv6Prefix;
+        this.lookups = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, Lookup>() {
+
+                    @Override
+                    public long expireAfterCreate(String key, Lookup lookup, long currentTime) {
+                        return (lookup.response() != null ? ttl : negativeTtl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Lookup lookup, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, lookup, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Lookup lookup, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, lookups.synchronous(), "geolocation");
+    }
 
     @Override
-    @Async
+    @Async(AsyncConfig.GEOLOCATION_EXECUTOR)
     public CompletableFuture<GeolocationResponse> getGeolocation(String ip) {
-        val future = new CompletableFuture<GeolocationResponse>();
-
+        final String network;
         try {
-            // Validate IP address
-            InetAddress.getByName(ip);
-
-            log.info("Getting geolocation for IP: {}", ip);
-
-            // Call geolocation API
-            val url = String.format("%s/%s/?token=%s", apiUrl, ip, apiKey);
-            val response = new RestTemplate()
-                    .getForObject(url, GeolocationResponse.class);
-
-            if (response == null) {
-                log.error("Failed to get geolocation for IP: {}", ip);
-                future.completeExceptionally(new GeolocationException(
-                        "Failed to get geolocation for IP: " + ip));
-            } else {
-                future.complete(response);
-            }
-
+            network = network(ip);
         } catch (UnknownHostException e) {
             log.error("Invalid IP address: {}", ip, e);
-            future.completeExceptionally(e);
+            return CompletableFuture.failedFuture(e);
+        }
+
+        val lookup = CacheUtil.getOrLoad(lookups, network, key -> lookup(ip));
+        if (lookup.response() == null) {
+            return CompletableFuture.failedFuture(new GeolocationException(lookup.failure()));
+        }
+        return CompletableFuture.completedFuture(lookup.response());
+    }
 
+    private Lookup lookup(String ip) {
+        log.info("Getting geolocation for IP: {}", ip);
+
+        try {
+            val response = restClient.get()
+                    .uri("/{ip}/?token={token}", ip, apiKey)
+                    .retrieve()
+                    .body(GeolocationResponse.class);
+            if (response != null) {
+                return new Lookup(response, null);
+            }
         } catch (RestClientException e) {
             log.error("Failed to get geolocation for IP: {}", ip, e);
-            future.completeExceptionally(e);
         }
+        return new Lookup(null, "Failed to get geolocation for IP: " + ip);
+    }
+
+    /**
+     * @return the network of the address, such as 203.0.113.0/24
+     * @throws UnknownHostException if the value is not an IP address
+     */
+    private String network(String ip) throws UnknownHostException {
+        // Built from the parsed bytes, which never resolves; an IPv4-mapped address comes back as IPv4
+        val address = InetAddress.getByAddress(parseLiteral(ip)).getAddress();
+        val prefix = address.length == 4 ? ipv4Prefix : ipv6Prefix;
+        for (int i = 0; i < address.length; i++) {
+            val bits = Math.min(Math.max(prefix - i * 8, 0), 8);
+            address[i] &= (byte) (0xFF << (8 - bits));
+        }
+        return InetAddress.getByAddress(address).getHostAddress() + "/" + prefix;
+    }
+
+    /**
+     * Parses a dotted quad or an IPv6 literal, optionally ending in a dotted
+     * quad, without going near DNS. Anything else, including hex-only host
+     * names such as beef, octets with leading zeros and zone ids, is refused.
+     *
+     * @throws UnknownHostException if the value is not an IP literal
+     */
+    private static byte[] parseLiteral(String ip) throws UnknownHostException {
+        val address = ip == null ? null : ip.indexOf(':') >= 0 ? parseIpv6(ip) : parseIpv4(ip);
+        if (address == null) {
+            throw new UnknownHostException(ip);
+        }
+        return address;
+    }
+
+    private static byte[] parseIpv4(String ip) {
+        val parts = ip.split("\\.", -1);
+        if (parts.length != 4) {
+            return null;
+        }
+
+        val address = new byte[4];
+        for (int i = 0; i < 4; i++) {
+            val part = parts[i];
+            if (part.isEmpty() || part.length() > 3 || (part.length() > 1 && part.charAt(0) == '0')
+                    || !part.chars().allMatch(c -> c >= '0' && c <= '9')) {
+                return null;
+            }
+            val octet = Integer.parseInt(part);
+            if (octet > 255) {
+                return null;
+            }
+            address[i] = (byte) octet;
+        }
+        return address;
+    }
+
+    private static byte[] parseIpv6(String ip) {
+        val gap = ip.indexOf("::");
+        if (gap >= 0 && ip.indexOf("::", gap + 1) >= 0) {
+            return null;
+        }
+
+        val head = groups(gap >= 0 ? ip.substring(0, gap) : ip, gap < 0);
+        val tail = gap >= 0 ? groups(ip.substring(gap + 2), true) : new int[0];
+        if (head == null || tail == null) {
+            return null;
+        }
+
+        // Without a gap the groups must fill the address; a gap stands for at least one zero group
+        val groupCount = head.length + tail.length;
+        if (gap < 0 ? groupCount != 8 : groupCount > 7) {
+            return null;
+        }
+
+        val address = new byte[16];
+        for (int i = 0; i < head.length; i++) {
+            address[i * 2] = (byte) (head[i] >> 8);
+            address[i * 2 + 1] = (byte) head[i];
+        }
+        for (int i = 0; i < tail.length; i++) {
+            val offset = 16 - (tail.length - i) * 2;
+            address[offset] = (byte) (tail[i] >> 8);
+            address[offset + 1] = (byte) tail[i];
+        }
+        return address;
+    }
+
+    /**
+     * @param last whether these groups end the address, so the final one may be a dotted quad
+     * @return the 16-bit groups, or null if one is malformed
+     */
+    private static int[] groups(String text, boolean last) {
+        if (text.isEmpty()) {
+            return new int[0];
+        }
+
+        val parts = text.split(":", -1);
+        byte[] quad = null;
+        if (last && parts[parts.length - 1].indexOf('.') >= 0) {
+            quad = parseIpv4(parts[parts.length - 1]);
+            if (quad == null) {
+                return null;
+            }
+        }
+
+        val hexParts = quad != null ? parts.length - 1 : parts.length;
+        val groups = new int[hexParts + (quad != null ? 2 : 0)];
+        for (int i = 0; i < hexParts; i++) {
+            val part = parts[i];
+            if (part.isEmpty() || part.length() > 4 || !part.chars().allMatch(GeolocationServiceImpl::isHexDigit)) {
+                return null;
+            }
+            groups[i] = Integer.parseInt(part, 16);
+        }
+        if (quad != null) {
+            groups[hexParts] = (quad[0] & 0xFF) << 8 | (quad[1] & 0xFF);
+            groups[hexParts + 1] = (quad[2] & 0xFF) << 8 | (quad[3] & 0xFF);
+        }
+        return groups;
+    }
+
+    // Character.digit would also take digits of other scripts
+    private static boolean isHexDigit(int c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
 
-        return future;
+    /**
+     * Result of a lookup; a failed one has no response.
+     */
+    private record Lookup(GeolocationResponse response, String failure) {
     }
 
 }
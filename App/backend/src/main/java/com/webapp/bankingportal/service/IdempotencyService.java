@@ -0,0 +1,37 @@
+package com.webapp.bankingportal.service;
+
+import java.util.Optional;
+
+import com.webapp.bankingportal.dto.IdempotentResponse;
+
+public interface IdempotencyService {
+
+    /**
+     * Claims the key in the idempotency_keys table before the request runs,
+     * so only one request with the key gets through on any node.
+     *
+     * @return false if the key is already claimed or completed
+     */
+    public boolean claim(String accountNumber, String idempotencyKey, String requestHash);
+
+    /**
+     * Stores the response of the request that claimed the key.
+     */
+    public void complete(String accountNumber, String idempotencyKey, IdempotentResponse response);
+
+    /**
+     * Gives up the claim of a request that failed without moving money, so
+     * the client may retry it with the same key.
+     */
+    public void release(String accountNumber, String idempotencyKey);
+
+    /**
+     * Hash of the request holding the key, whether it is still claimed or
+     * already completed.
+     */
+    public Optional<String> findRequestHash(String accountNumber, String idempotencyKey);
+
+    public Optional<IdempotentResponse> findResponse(String accountNumber, String idempotencyKey);
+
+    public int purgeExpired();
+}
@@ -0,0 +1,130 @@
+package com.webapp.bankingportal.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.webapp.bankingportal.dto.IdempotentResponse;
+import com.webapp.bankingportal.enums.IdempotencyStatus;
+import com.webapp.bankingportal.repository.IdempotencyRecordRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+/**
+ * Keeps recent responses in a bounded Caffeine cache in front of the
+ * idempotency_keys table. The cache only saves the database lookup; the table
+ * is what makes a replay safe after a restart or on another node. A key is
+ * claimed in the table before its request runs, so a retry arriving on any
+ * node while the request runs, or after it moved money but crashed before
+ * storing its response, finds the claim instead of moving money again.
+ * A claim only lasts for idempotency.pending-lease, which outlives the
+ * transaction of its request, so a key left claimed by a request that died
+ * can be used again after that instead of only after idempotency.ttl.
+ */
+@Slf4j
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final Duration ttl;
+    private final Duration pendingLease;
+    private final Cache<String, IdempotentResponse> responses;
+
+    public IdempotencyServiceImpl(
+            IdempotencyRecordRepository idempotencyRecordRepository,
+            @Value("${idempotency.ttl:PT24H}") Duration ttl,
+            @Value("${idempotency.pending-lease:PT1M}") Duration pendingLease,
+            @Value("${idempotency.cache.maximum-size:10000}") long maximumSize,
+            MeterRegistry meterRegistry) {
+
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.ttl = ttl;
+        this.pendingLease = pendingLease;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "idempotency");
+    }
+
+    @Override
+    @Transactional
+    public boolean claim(String accountNumber, String idempotencyKey, String requestHash) {
+        val now = LocalDateTime.now();
+        // An expired row, or a claim whose lease ran out, would otherwise hold the key until the next purge
+        idempotencyRecordRepository.deleteExpired(accountNumber, idempotencyKey, now);
+        return idempotencyRecordRepository.claim(accountNumber, idempotencyKey, requestHash, now,
+                now.plus(pendingLease)) == 1;
+    }
+
+    @Override
+    @Transactional
+    public void complete(String accountNumber, String idempotencyKey, IdempotentResponse response) {
+        val updated = idempotencyRecordRepository.complete(accountNumber, idempotencyKey,
+                response.status(), response.body(), LocalDateTime.now().plus(ttl),
+                IdempotencyStatus.PENDING, IdempotencyStatus.COMPLETED);
+        if (updated == 0) {
+            log.warn("Idempotency key {} for account {} was not claimed", idempotencyKey, accountNumber);
+            return;
+        }
+
+        responses.put(cacheKey(accountNumber, idempotencyKey), response);
+    }
+
+    @Override
+    @Transactional
+    public void release(String accountNumber, String idempotencyKey) {
+        idempotencyRecordRepository.deleteByStatus(accountNumber, idempotencyKey, IdempotencyStatus.PENDING);
+    }
+
+    @Override
+    public Optional<String> findRequestHash(String accountNumber, String idempotencyKey) {
+        return idempotencyRecordRepository.findRequestHash(accountNumber, idempotencyKey, LocalDateTime.now());
+    }
+
+    @Override
+    public Optional<IdempotentResponse> findResponse(String accountNumber, String idempotencyKey) {
+        val cacheKey = cacheKey(accountNumber, idempotencyKey);
+        val cached = responses.getIfPresent(cacheKey);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        val stored = idempotencyRecordRepository
+                .findByAccountNumberAndIdempotencyKeyAndStatusAndExpiresAtAfter(
+                        accountNumber, idempotencyKey, IdempotencyStatus.COMPLETED, LocalDateTime.now())
+                .map(record -> new IdempotentResponse(
+                        record.getRequestHash(), record.getResponseStatus(), record.getResponseBody()));
+
+        stored.ifPresent(response -> responses.put(cacheKey, response));
+        return stored;
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval:PT1H}")
+    public int purgeExpired() {
+        val purged = idempotencyRecordRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+        return purged;
+    }
+
+    private static String cacheKey(String accountNumber, String idempotencyKey) {
+        return accountNumber + ':' + idempotencyKey;
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.webapp.bankingportal.service;
+
+import java.util.Optional;
+
+import com.webapp.bankingportal.dto.LoginIdentity;
+
+public interface IdentityService {
+
+    /**
+     * Resolves an email address or account number to the user it belongs to.
+     *
+     * @throws com.webapp.bankingportal.exception.UserInvalidException if there is no such user
+     */
+    public LoginIdentity resolve(String identifier);
+
+    public Optional<LoginIdentity> findByAccountNumber(String accountNumber);
+
+    /**
+     * Forgets everything cached about the account, for example after its
+     * password changed.
+     */
+    public void evict(String accountNumber);
+
+    public void evictIdentifier(String identifier);
+}
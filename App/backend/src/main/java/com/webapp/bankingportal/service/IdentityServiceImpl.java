@@ -0,0 +1,99 @@
+package com.webapp.bankingportal.service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.webapp.bankingportal.dto.LoginIdentity;
+import com.webapp.bankingportal.exception.UserInvalidException;
+import com.webapp.bankingportal.repository.UserRepository;
+import com.webapp.bankingportal.util.ApiMessages;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.val;
+
+/**
+ * Resolves login identifiers with one indexed query and keeps the result
+ * for a short while, so authentication and token issuance during the same
+ * login do not read the user again. An identity is cached under both the
+ * identifier it was looked up by and its account number. Unknown
+ * identifiers are not cached, so a user can log in right after registering.
+ *
+ * Entries are evicted when the password changes on this instance; other
+ * instances see the change once their entry expires after identity.cache.ttl.
+ */
+@Service
+public class IdentityServiceImpl implements IdentityService {
+
+    private final UserRepository userRepository;
+    private final Cache<String, LoginIdentity> identities;
+
+    public IdentityServiceImpl(
+            UserRepository userRepository,
+            @Value("${identity.cache.maximum-size:10000}") long maximumSize,
+            @Value("${identity.cache.ttl:PT30S}") Duration ttl,
+            MeterRegistry meterRegistry) {
+
+        this.userRepository = userRepository;
+        this.identities = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, identities, "identity");
+    }
+
+    @Override
+    public LoginIdentity resolve(String identifier) {
+        val cached = identities.getIfPresent(identifier);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Account numbers never contain an @, so one lookup is enough
+        val identity = (identifier.contains("@")
+                ? userRepository.findLoginIdentityByEmail(identifier)
+                : userRepository.findLoginIdentityByAccountNumber(identifier))
+                .orElseThrow(() -> new UserInvalidException(
+                        String.format(ApiMessages.USER_NOT_FOUND_BY_IDENTIFIER.getMessage(), identifier)));
+
+        cache(identifier, identity);
+        return identity;
+    }
+
+    @Override
+    public Optional<LoginIdentity> findByAccountNumber(String accountNumber) {
+        val cached = identities.getIfPresent(accountNumber);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        val identity = userRepository.findLoginIdentityByAccountNumber(accountNumber);
+        identity.ifPresent(found -> cache(accountNumber, found));
+        return identity;
+    }
+
+    @Override
+    public void evict(String accountNumber) {
+        identities.asMap().values().removeIf(identity -> accountNumber.equals(identity.accountNumber()));
+    }
+
+    @Override
+    public void evictIdentifier(String identifier) {
+        identities.invalidate(identifier);
+    }
+
+    private void cache(String identifier, LoginIdentity identity) {
+        identities.put(identifier, identity);
+        if (identity.accountNumber() != null) {
+            identities.put(identity.accountNumber(), identity);
+        }
+    }
+
+}
@@ -0,0 +1,10 @@
+package com.webapp.bankingportal.service;
+
+import java.time.Duration;
+
+public interface LeaseService {
+
+    public boolean tryAcquire(String name, Duration duration);
+
+    public void release(String name);
+}
@@ -0,0 +1,57 @@
+package com.webapp.bankingportal.service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.UUID;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.webapp.bankingportal.repository.SchedulerLeaseRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Database leases for scheduled jobs that must run on one instance at a time.
+ * A lease is held until it is released or its duration runs out, so a job
+ * on a crashed instance blocks the others for at most one lease duration.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LeaseServiceImpl implements LeaseService {
+
+    private final SchedulerLeaseRepository schedulerLeaseRepository;
+    private final String owner = ownerId();
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean tryAcquire(String name, Duration duration) {
+        schedulerLeaseRepository.insertIfAbsent(name);
+        val acquired = schedulerLeaseRepository.acquire(name, owner, Math.max(1, duration.toSeconds())) == 1;
+        if (!acquired) {
+            log.debug("Lease {} is held by another instance", name);
+        }
+        return acquired;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void release(String name) {
+        schedulerLeaseRepository.release(name, owner);
+    }
+
+    private static String ownerId() {
+        val instance = UUID.randomUUID().toString().substring(0, 8);
+        try {
+            return InetAddress.getLocalHost().getHostName() + ":" + instance;
+        } catch (UnknownHostException e) {
+            return instance;
+        }
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.webapp.bankingportal.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public interface LedgerService {
+
+    /**
+     * Ledger account on the other side of cash deposits and withdrawals.
+     */
+    public static final String CASH_ACCOUNT = "CASH";
+
+    public void post(Long transactionId, String debitAccountNumber, String creditAccountNumber, BigDecimal amount);
+
+    public BigDecimal computeBalance(String accountNumber);
+
+    public BigDecimal computeBalanceAsOf(String accountNumber, LocalDateTime asOf);
+
+    public boolean verifyBalance(String accountNumber);
+
+    public BigDecimal rebuildBalance(String accountNumber);
+
+    public int checkpoint();
+
+    public int checkpoint(LocalDateTime cutoff);
+}
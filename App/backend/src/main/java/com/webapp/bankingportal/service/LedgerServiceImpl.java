@@ -0,0 +1,170 @@
+package com.webapp.bankingportal.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.webapp.bankingportal.entity.BalanceSnapshot;
+import com.webapp.bankingportal.entity.DailyBalance;
+import com.webapp.bankingportal.exception.NotFoundException;
+import com.webapp.bankingportal.repository.AccountRepository;
+import com.webapp.bankingportal.repository.BalanceSnapshotRepository;
+import com.webapp.bankingportal.repository.DailyBalanceRepository;
+import com.webapp.bankingportal.repository.LedgerEntryRepository;
+import com.webapp.bankingportal.util.ApiMessages;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+/**
+ * Append-only double-entry ledger. Every movement is written as a balanced
+ * debit and credit pair in the same transaction that updates
+ * accounts.balance, which is kept as a projection of the ledger so the
+ * overdraft guard stays a single-row check. Any balance can be recomputed
+ * from the latest snapshot plus the entries written after it.
+ */
+@Slf4j
+@Service
+public class LedgerServiceImpl implements LedgerService {
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final BalanceSnapshotRepository balanceSnapshotRepository;
+    private final DailyBalanceRepository dailyBalanceRepository;
+    private final AccountRepository accountRepository;
+    private final Duration checkpointLag;
+
+    public LedgerServiceImpl(
+            LedgerEntryRepository ledgerEntryRepository,
+            BalanceSnapshotRepository balanceSnapshotRepository,
+            DailyBalanceRepository dailyBalanceRepository,
+            AccountRepository accountRepository,
+            @Value("${ledger.checkpoint-lag:PT1M}") Duration checkpointLag,
+            @Value("${spring.transaction.default-timeout:#{null}}") Duration transactionTimeout) {
+
+        // Only the read-only export overrides the default timeout, and it writes no entries
+        if (transactionTimeout == null || transactionTimeout.compareTo(checkpointLag) >= 0) {
+            throw new IllegalArgumentException(String.format(
+                    "ledger.checkpoint-lag (%s) must exceed spring.transaction.default-timeout (%s)",
+                    checkpointLag, transactionTimeout));
+        }
+
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.balanceSnapshotRepository = balanceSnapshotRepository;
+        this.dailyBalanceRepository = dailyBalanceRepository;
+        this.accountRepository = accountRepository;
+        this.checkpointLag = checkpointLag;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void post(Long transactionId, String debitAccountNumber, String creditAccountNumber, BigDecimal amount) {
+        val now = LocalDateTime.now();
+        ledgerEntryRepository.insertEntries(transactionId, debitAccountNumber, creditAccountNumber, amount, now);
+
+        for (val accountNumber : new String[] { debitAccountNumber, creditAccountNumber }) {
+            if (!CASH_ACCOUNT.equals(accountNumber)) {
+                dailyBalanceRepository.upsertClosingBalance(accountNumber, now.toLocalDate());
+            }
+        }
+    }
+
+    @Override
+    public BigDecimal computeBalance(String accountNumber) {
+        return ledgerEntryRepository.computeBalance(accountNumber);
+    }
+
+    /**
+     * Closing balance of the last day with movements before the requested
+     * day, plus the entries of the requested day up to the requested time.
+     * An account that existed before the ledger only has history from the
+     * day after the closing balance it was opened with.
+     */
+    @Override
+    public BigDecimal computeBalanceAsOf(String accountNumber, LocalDateTime asOf) {
+        val day = asOf.toLocalDate();
+        val previousDay = dailyBalanceRepository
+                .findFirstByAccountNumberAndBalanceDateBeforeOrderByBalanceDateDesc(accountNumber, day);
+
+        if (previousDay.isEmpty()) {
+            val openingSnapshot = balanceSnapshotRepository.findOpeningSnapshot(accountNumber);
+            if (openingSnapshot.isPresent()) {
+                val historyStart = dailyBalanceRepository.findFirstByAccountNumberOrderByBalanceDateAsc(accountNumber)
+                        .map(first -> first.getBalanceDate().plusDays(1))
+                        .orElseGet(() -> openingSnapshot.get().getCreatedAt().toLocalDate().plusDays(1));
+                throw new NotFoundException(String.format(
+                        ApiMessages.BALANCE_HISTORY_NOT_FOUND_ERROR.getMessage(), historyStart));
+            }
+        }
+
+        val openingBalance = previousDay.map(DailyBalance::getClosingBalance).orElse(BigDecimal.ZERO);
+        return openingBalance.add(ledgerEntryRepository.sumBetween(accountNumber, day.atStartOfDay(), asOf));
+    }
+
+    @Override
+    public boolean verifyBalance(String accountNumber) {
+        val projected = accountRepository.findBalanceByAccountNumber(accountNumber)
+                .orElseThrow(() -> new NotFoundException(ApiMessages.ACCOUNT_NOT_FOUND.getMessage()));
+        val computed = computeBalance(accountNumber);
+
+        if (projected.compareTo(computed) != 0) {
+            log.warn("Balance of account {} is {} but the ledger says {}", accountNumber, projected, computed);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public BigDecimal rebuildBalance(String accountNumber) {
+        // The row lock keeps new movements out until the projection is rewritten
+        accountRepository.findByAccountNumberForUpdate(accountNumber)
+                .orElseThrow(() -> new NotFoundException(ApiMessages.ACCOUNT_NOT_FOUND.getMessage()));
+
+        val balance = computeBalance(accountNumber);
+        accountRepository.updateBalance(accountNumber, balance);
+
+        val openingBalance = balanceSnapshotRepository.findOpeningSnapshot(accountNumber)
+                .map(BalanceSnapshot::getBalance)
+                .orElse(BigDecimal.ZERO);
+        dailyBalanceRepository.rebuildClosingBalances(accountNumber, openingBalance);
+
+        log.info("Rebuilt balance of account {} from the ledger: {}", accountNumber, balance);
+        return balance;
+    }
+
+    /**
+     * Entries younger than the checkpoint lag are left for the next run, since
+     * a transaction that is still open may hold a lower id than one that has
+     * already committed. The lag must exceed the transaction timeout, which
+     * is checked at startup, so no writer can still be open once its entries
+     * are old enough to be folded in.
+     */
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${ledger.checkpoint-interval:PT5M}")
+    public int checkpoint() {
+        return checkpoint(LocalDateTime.now().minus(checkpointLag));
+    }
+
+    @Override
+    @Transactional
+    public int checkpoint(LocalDateTime cutoff) {
+        val lastEntryId = ledgerEntryRepository.findLastEntryIdBefore(cutoff);
+        if (lastEntryId == 0) {
+            return 0;
+        }
+
+        val written = balanceSnapshotRepository.checkpoint(lastEntryId, LocalDateTime.now());
+        if (written > 0) {
+            log.info("Checkpointed {} account balances up to ledger entry {}", written, lastEntryId);
+        }
+        return written;
+    }
+
+}
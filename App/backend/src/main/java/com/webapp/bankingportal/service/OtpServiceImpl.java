@@ -1,18 +1,20 @@
 package com.webapp.bankingportal.service;
 
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.HexFormat;
 import java.util.Random;
-import java.util.concurrent.CompletableFuture;
 
-import org.springframework.cache.CacheManager;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import com.webapp.bankingportal.entity.OtpInfo;
 import com.webapp.bankingportal.exception.AccountDoesNotExistException;
 import com.webapp.bankingportal.exception.InvalidOtpException;
 import com.webapp.bankingportal.exception.OtpRetryLimitExceededException;
-import com.webapp.bankingportal.repository.OtpInfoRepository;
 import com.webapp.bankingportal.util.ValidationUtil;
 import com.webapp.bankingportal.util.ApiMessages;
 
@@ -25,15 +27,18 @@ public class OtpServiceImpl implements OtpService {
 
     public static final int OTP_ATTEMPTS_LIMIT = 3;
     public static final int OTP_EXPIRY_MINUTES = 5;
-    public static final int OTP_RESET_WAITING_TIME_MINUTES = 10;
     public static final int OTP_RETRY_LIMIT_WINDOW_MINUTES = 15;
 
-    private final CacheManager cacheManager;
+    private static final String OTP_RATE_LIMIT_PREFIX = "otp:";
+
     private final EmailService emailService;
-    private final OtpInfoRepository otpInfoRepository;
+    private final EmailOutboxService emailOutboxService;
+    private final OtpStore otpStore;
+    private final RateLimitStore rateLimitStore;
     private final ValidationUtil validationUtil;
 
-    private LocalDateTime otpLimitReachedTime = null;
+    @Value("${otp.hash-secret}")
+    private String hashSecret;
 
     @Override
     public String generateOTP(String accountNumber) {
@@ -41,133 +46,71 @@ public class OtpServiceImpl implements OtpService {
             throw new AccountDoesNotExistException(ApiMessages.ACCOUNT_NOT_FOUND.getMessage());
         }
 
-        val existingOtpInfo = otpInfoRepository.findByAccountNumber(accountNumber);
-        if (existingOtpInfo == null) {
-            incrementOtpAttempts(accountNumber);
-            return generateNewOTP(accountNumber);
-        }
+        validateOtpWithinRetryLimit(accountNumber);
 
-        validateOtpWithinRetryLimit(existingOtpInfo);
-
-        if (isOtpExpired(existingOtpInfo)) {
-            return generateNewOTP(accountNumber);
-        }
-
-        // Existing OTP is not expired
-        existingOtpInfo.setGeneratedAt(LocalDateTime.now());
-        incrementOtpAttempts(accountNumber);
-
-        return existingOtpInfo.getOtp();
+        return generateNewOTP(accountNumber);
     }
 
-    private void validateOtpWithinRetryLimit(OtpInfo otpInfo) {
-        if (!isOtpRetryLimitExceeded(otpInfo)) {
+    /**
+     * Allows OTP_ATTEMPTS_LIMIT generations per account in a window that
+     * opens with the first one and lasts OTP_RETRY_LIMIT_WINDOW_MINUTES.
+     */
+    private void validateOtpWithinRetryLimit(String accountNumber) {
+        val waitMillis = rateLimitStore.tryAcquire(OTP_RATE_LIMIT_PREFIX + accountNumber, OTP_ATTEMPTS_LIMIT,
+                Duration.ofMinutes(OTP_RETRY_LIMIT_WINDOW_MINUTES));
+        if (waitMillis == 0) {
             return;
         }
 
-        val now = LocalDateTime.now();
-
-        if (otpLimitReachedTime == null) {
-            otpLimitReachedTime = now;
-        }
-
-        val waitingMinutes = OTP_RESET_WAITING_TIME_MINUTES - otpLimitReachedTime.until(now, ChronoUnit.MINUTES);
+        val waitingMinutes = (waitMillis + 59_999) / 60_000;
 
         throw new OtpRetryLimitExceededException(
                 String.format(ApiMessages.OTP_GENERATION_LIMIT_EXCEEDED.getMessage(), waitingMinutes));
     }
 
-    private boolean isOtpRetryLimitExceeded(OtpInfo otpInfo) {
-        val attempts = getOtpAttempts(otpInfo.getAccountNumber());
-        if (attempts < OTP_ATTEMPTS_LIMIT) {
-            return false;
-        }
-
-        if (isOtpResetWaitingTimeExceeded()) {
-            resetOtpAttempts(otpInfo.getAccountNumber());
-            return false;
-        }
-
-        val now = LocalDateTime.now();
-
-        return otpInfo.getGeneratedAt().isAfter(now.minusMinutes(OTP_RETRY_LIMIT_WINDOW_MINUTES));
-    }
-
-    private boolean isOtpResetWaitingTimeExceeded() {
-        val now = LocalDateTime.now();
-        return otpLimitReachedTime != null
-                && otpLimitReachedTime.isBefore(now.minusMinutes(OTP_RESET_WAITING_TIME_MINUTES));
-    }
-
-    private void incrementOtpAttempts(String accountNumber) {
-        if (!validationUtil.doesAccountExist(accountNumber)) {
-            throw new AccountDoesNotExistException(ApiMessages.ACCOUNT_NOT_FOUND.getMessage());
-        }
-
-        val cache = cacheManager.getCache("otpAttempts");
-        if (cache != null) {
-            cache.put(accountNumber, getOtpAttempts(accountNumber) + 1);
-        }
-    }
-
-    private void resetOtpAttempts(String accountNumber) {
-        otpLimitReachedTime = null;
-        val cache = cacheManager.getCache("otpAttempts");
-        if (cache != null) {
-            cache.put(accountNumber, 0);
-        }
-    }
-
-    private int getOtpAttempts(String accountNumber) {
-        var otpAttempts = 0;
-        val cache = cacheManager.getCache("otpAttempts");
-        if (cache == null) {
-            return otpAttempts;
-        }
-
-        val value = cache.get(accountNumber, Integer.class);
-        if (value != null) {
-            otpAttempts = value;
-        }
-
-        return otpAttempts;
-    }
-
+    /**
+     * Only the hash is stored, so a new OTP replaces the previous one rather
+     * than the previous one being sent again.
+     */
     private String generateNewOTP(String accountNumber) {
         val random = new Random();
         val otpValue = 100_000 + random.nextInt(900_000);
         val otp = String.valueOf(otpValue);
 
-        otpInfoRepository.save(new OtpInfo(accountNumber, otp, LocalDateTime.now()));
+        otpStore.save(accountNumber, hash(accountNumber, otp), Duration.ofMinutes(OTP_EXPIRY_MINUTES));
 
         return otp;
     }
 
     @Override
-    public CompletableFuture<Void> sendOTPByEmail(String email, String name, String accountNumber, String otp) {
-        val emailText = emailService.getOtpLoginEmailTemplate(name, "xxx" + accountNumber.substring(3), otp);
-        return emailService.sendEmail(email, ApiMessages.EMAIL_SUBJECT_OTP.getMessage(), emailText);
+    public void sendOTPByEmail(String email, String name, String accountNumber, String otp) {
+        val content = emailService.getOtpLoginEmailTemplate(name, "xxx" + accountNumber.substring(3), otp);
+        emailOutboxService.enqueue(email, ApiMessages.EMAIL_SUBJECT_OTP.getMessage(), content);
     }
 
     @Override
     public boolean validateOTP(String accountNumber, String otp) {
-        val otpInfo = otpInfoRepository.findByAccountNumberAndOtp(accountNumber, otp);
-        if (otpInfo == null) {
+        if (!otpStore.matches(accountNumber, hash(accountNumber, otp))) {
             throw new InvalidOtpException(ApiMessages.OTP_INVALID_ERROR.getMessage());
         }
 
-        return !isOtpExpired(otpInfo);
+        return true;
     }
 
-    private boolean isOtpExpired(OtpInfo otpInfo) {
-        val now = LocalDateTime.now();
-        val generatedAt = otpInfo.getGeneratedAt();
-        val expired = generatedAt.isBefore(now.minusMinutes(OTP_EXPIRY_MINUTES));
-        if (expired) {
-            otpInfoRepository.delete(otpInfo);
+    /**
+     * Keyed with a server secret, since six digits alone are quickly guessed
+     * back from a plain hash.
+     */
+    private String hash(String accountNumber, String otp) {
+        try {
+            val mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(hashSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            mac.update(accountNumber.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return HexFormat.of().formatHex(mac.doFinal(otp.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
         }
-
-        return expired;
     }
 
 }
@@ -0,0 +1,21 @@
+package com.webapp.bankingportal.service;
+
+import java.time.Duration;
+
+/**
+ * Holds the current OTP of each account, as a hash so plain codes are never
+ * kept. Selected with otp.store: memory keeps OTPs on this instance,
+ * database shares them so verification may reach any instance.
+ */
+public interface OtpStore {
+
+    /**
+     * Replaces any OTP of the account with the given hash, valid for ttl.
+     */
+    public void save(String accountNumber, String otpHash, Duration ttl);
+
+    /**
+     * @return whether the account has an unexpired OTP with the given hash
+     */
+    public boolean matches(String accountNumber, String otpHash);
+}
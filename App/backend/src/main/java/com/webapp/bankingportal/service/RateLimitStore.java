@@ -0,0 +1,22 @@
+package com.webapp.bankingportal.service;
+
+import java.time.Duration;
+
+/**
+ * Counts hits per key. A key's window opens with its first hit and lasts
+ * for the given duration; within it at most limit hits are allowed.
+ * Selected with rate-limit.store: memory keeps the counts per instance,
+ * database shares them between instances.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Records a hit for the key if its window has room for one.
+     *
+     * @return 0 if the hit was allowed, otherwise the milliseconds until the
+     *         window of the key closes
+     */
+    public long tryAcquire(String key, int limit, Duration window);
+
+    public void reset(String key);
+}
@@ -0,0 +1,12 @@
+package com.webapp.bankingportal.service;
+
+public interface SweeperService {
+
+    /**
+     * Deletes expired login tokens, OTPs, password reset tokens and rate limit
+     * windows.
+     *
+     * @return the number of rows deleted, or 0 if another instance holds the lease
+     */
+    public int sweep();
+}
@@ -0,0 +1,135 @@
+package com.webapp.bankingportal.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.IntUnaryOperator;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.webapp.bankingportal.repository.EmailOutboxRepository;
+import com.webapp.bankingportal.repository.OtpInfoRepository;
+import com.webapp.bankingportal.repository.PasswordResetTokenRepository;
+import com.webapp.bankingportal.repository.RateLimitRepository;
+import com.webapp.bankingportal.repository.TokenRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+/**
+ * Deletes expired rows that are otherwise only removed when they are next
+ * looked up. Rows go in batches of a bounded size, each in its own short
+ * transaction with a pause in between, so a large backlog never holds locks
+ * on a table for long. Only the instance holding the lease sweeps. It
+ * renews the lease before every batch, so the lease cannot run out while a
+ * batch is being written, and stops as soon as it fails to, or once a
+ * sweep has run for a lease duration.
+ */
+@Slf4j
+@Service
+public class SweeperServiceImpl implements SweeperService {
+
+    static final String LEASE_NAME = "expired-data-sweeper";
+
+    private final LeaseService leaseService;
+    private final TokenRepository tokenRepository;
+    private final OtpInfoRepository otpInfoRepository;
+    private final PasswordResetTokenRepository passwordResetTokenRepository;
+    private final RateLimitRepository rateLimitRepository;
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final MeterRegistry meterRegistry;
+    private final Timer sweepTimer;
+
+    @Value("${sweeper.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${sweeper.batch-pause:PT0.1S}")
+    private Duration batchPause;
+
+    @Value("${sweeper.lease-duration:PT5M}")
+    private Duration leaseDuration;
+
+    @Value("${email.outbox.dead-retention:P7D}")
+    private Duration deadEmailRetention;
+
+    public SweeperServiceImpl(
+            LeaseService leaseService,
+            TokenRepository tokenRepository,
+            OtpInfoRepository otpInfoRepository,
+            PasswordResetTokenRepository passwordResetTokenRepository,
+            RateLimitRepository rateLimitRepository,
+            EmailOutboxRepository emailOutboxRepository,
+            MeterRegistry meterRegistry) {
+
+        this.leaseService = leaseService;
+        this.tokenRepository = tokenRepository;
+        this.otpInfoRepository = otpInfoRepository;
+        this.passwordResetTokenRepository = passwordResetTokenRepository;
+        this.rateLimitRepository = rateLimitRepository;
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.meterRegistry = meterRegistry;
+        this.sweepTimer = Timer.builder("sweeper.duration")
+                .description("Time taken by a sweep of expired rows")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${sweeper.interval:PT10M}")
+    public int sweep() {
+        if (!leaseService.tryAcquire(LEASE_NAME, leaseDuration)) {
+            return 0;
+        }
+
+        val sample = Timer.start(meterRegistry);
+        try {
+            val deadline = System.nanoTime() + leaseDuration.toNanos();
+            val now = LocalDateTime.now();
+
+            val purged = purge("token", limit -> tokenRepository.deleteExpiredBatch(now, limit), deadline)
+                    + purge("otp_info", limit -> otpInfoRepository.deleteExpiredBatch(now, limit), deadline)
+                    + purge("passwordresettoken",
+                            limit -> passwordResetTokenRepository.deleteExpiredBatch(now, limit), deadline)
+                    + purge("rate_limits", limit -> rateLimitRepository.deleteExpiredBatch(now, limit), deadline)
+                    + purge("email_outbox", limit -> emailOutboxRepository.deleteDeadBatch(
+                            now.minus(deadEmailRetention), limit), deadline);
+
+            if (purged > 0) {
+                log.info("Swept {} expired rows", purged);
+            }
+            return purged;
+        } finally {
+            sample.stop(sweepTimer);
+            leaseService.release(LEASE_NAME);
+        }
+    }
+
+    private int purge(String table, IntUnaryOperator deleteBatch, long deadline) {
+        val counter = Counter.builder("sweeper.rows.purged")
+                .description("Expired rows deleted by the sweeper")
+                .tag("table", table)
+                .register(meterRegistry);
+
+        var purged = 0;
+        while (System.nanoTime() < deadline && leaseService.tryAcquire(LEASE_NAME, leaseDuration)) {
+            val deleted = deleteBatch.applyAsInt(batchSize);
+            purged += deleted;
+            counter.increment(deleted);
+            if (deleted < batchSize) {
+                break;
+            }
+
+            try {
+                Thread.sleep(batchPause.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return purged;
+    }
+
+}
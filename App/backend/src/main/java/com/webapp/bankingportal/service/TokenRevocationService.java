@@ -0,0 +1,16 @@
+package com.webapp.bankingportal.service;
+
+import java.util.Date;
+
+public interface TokenRevocationService {
+
+    public int getTokenEpoch(String accountNumber);
+
+    public boolean isRevoked(String accountNumber, String tokenId, int tokenEpoch);
+
+    public void revoke(String accountNumber, String tokenId, Date expiresAt);
+
+    public void revokeAll(String accountNumber);
+
+    public int sync();
+}
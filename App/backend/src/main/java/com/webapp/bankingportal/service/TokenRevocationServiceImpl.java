@@ -0,0 +1,156 @@
+package com.webapp.bankingportal.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.webapp.bankingportal.entity.RevokedToken;
+import com.webapp.bankingportal.repository.AccountRepository;
+import com.webapp.bankingportal.repository.RevokedTokenRepository;
+import com.webapp.bankingportal.util.CacheUtil;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+/**
+ * Answers whether a token is revoked from memory. Two things revoke a token:
+ * its jti on the deny-list, or an account token epoch newer than the one it
+ * carries. Deny-list entries live only until the token would have expired,
+ * so the list stays small. Both are persisted and re-read every sync
+ * interval, which is how other instances learn about revocations.
+ */
+@Slf4j
+@Service
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+
+    private final AccountRepository accountRepository;
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final AsyncCache<String, Integer> tokenEpochs;
+    private final Cache<String, Long> revokedTokens;
+    private volatile LocalDateTime lastSync = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    public TokenRevocationServiceImpl(
+            AccountRepository accountRepository,
+            RevokedTokenRepository revokedTokenRepository,
+            @Value("${jwt.cache.maximum-size:10000}") long maximumSize,
+            @Value("${jwt.revocation.sync-interval:PT1M}") Duration syncInterval,
+            MeterRegistry meterRegistry) {
+
+        this.accountRepository = accountRepository;
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.tokenEpochs = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(syncInterval)
+                .recordStats()
+                .buildAsync();
+
+        // Not size bounded: evicting an entry early would bring its token back to life
+        this.revokedTokens = Caffeine.newBuilder()
+                .expireAfter(new Expiry<String, Long>() {
+                    @Override
+                    public long expireAfterCreate(String tokenId, Long expiresAt, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiresAt - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String tokenId, Long expiresAt, long currentTime,
+                            long currentDuration) {
+                        return expireAfterCreate(tokenId, expiresAt, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String tokenId, Long expiresAt, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, tokenEpochs.synchronous(), "jwt_epochs");
+        CaffeineCacheMetrics.monitor(meterRegistry, revokedTokens, "jwt_revoked");
+    }
+
+    @Override
+    public int getTokenEpoch(String accountNumber) {
+        return CacheUtil.getOrLoad(tokenEpochs, accountNumber,
+                key -> accountRepository.findTokenEpochByAccountNumber(key).orElse(0));
+    }
+
+    @Override
+    public boolean isRevoked(String accountNumber, String tokenId, int tokenEpoch) {
+        return (tokenId != null && revokedTokens.getIfPresent(tokenId) != null)
+                || tokenEpoch < getTokenEpoch(accountNumber);
+    }
+
+    @Override
+    @Transactional
+    public void revoke(String accountNumber, String tokenId, Date expiresAt) {
+        revokedTokens.put(tokenId, expiresAt.getTime());
+        revokedTokenRepository.save(new RevokedToken(tokenId, accountNumber, LocalDateTime.now(),
+                LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault())));
+
+        log.info("Revoked token {} of account {}", tokenId, accountNumber);
+    }
+
+    /**
+     * Revokes every token issued to the account so far by moving it to the
+     * next epoch. The cached epoch is dropped again once the transaction
+     * completes, so a reload racing the commit cannot keep the old one.
+     */
+    @Override
+    @Transactional
+    public void revokeAll(String accountNumber) {
+        accountRepository.incrementTokenEpoch(accountNumber);
+        tokenEpochs.synchronous().invalidate(accountNumber);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    tokenEpochs.synchronous().invalidate(accountNumber);
+                }
+            });
+        }
+
+        log.info("Revoked all tokens of account {}", accountNumber);
+    }
+
+    /**
+     * Loads revocations made since the previous sync, including those of
+     * other instances, and drops expired rows. Cached epochs expire on their
+     * own after the same interval.
+     */
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval:PT1M}")
+    public int sync() {
+        val now = LocalDateTime.now();
+        val revoked = revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(lastSync.minusSeconds(1), now);
+        revoked.forEach(token -> revokedTokens.put(token.getTokenId(),
+                token.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()));
+        lastSync = now;
+
+        val purged = revokedTokenRepository.deleteExpired(now);
+        if (purged > 0) {
+            log.info("Purged {} expired revoked tokens", purged);
+        }
+        return revoked.size();
+    }
+
+}
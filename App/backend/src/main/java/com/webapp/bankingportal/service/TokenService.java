@@ -29,5 +29,9 @@ public interface TokenService extends UserDetailsService {
 
     public void validateToken(String token) throws InvalidTokenException;
 
+    public UserDetails authenticate(String token) throws InvalidTokenException;
+
     public void invalidateToken(String token);
+
+    public void invalidateAllTokens(String accountNumber);
 }
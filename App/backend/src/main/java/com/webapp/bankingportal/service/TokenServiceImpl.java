@@ -2,10 +2,17 @@ package com.webapp.bankingportal.service;
 
 import static org.springframework.security.core.userdetails.User.withUsername;
 
+import java.time.Duration;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -13,21 +20,28 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Isolation;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.webapp.bankingportal.entity.Account;
 import com.webapp.bankingportal.entity.Token;
 import com.webapp.bankingportal.exception.InvalidTokenException;
 import com.webapp.bankingportal.repository.AccountRepository;
 import com.webapp.bankingportal.repository.TokenRepository;
-import com.webapp.bankingportal.repository.UserRepository;
+import com.webapp.bankingportal.security.JwtPrincipal;
 import com.webapp.bankingportal.util.ApiMessages;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.SignatureException;
 import io.jsonwebtoken.UnsupportedJwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 
 import lombok.RequiredArgsConstructor;
 import lombok.val;
@@ -38,15 +52,69 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class TokenServiceImpl implements TokenService {
 
+    public static final String DATABASE_AUTHENTICATION = "database";
+    public static final String STATELESS_AUTHENTICATION = "stateless";
+    public static final String REVOCATION_AUTHENTICATION = "revocation";
+
+    static final String AUTHORITIES_CLAIM = "authorities";
+    static final String EPOCH_CLAIM = "epoch";
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration}")
     private long expiration;
 
-    private final UserRepository userRepository;
+    @Value("${jwt.cache.maximum-size:10000}")
+    private long cacheMaximumSize;
+
+    @Value("${jwt.cache.ttl:PT30S}")
+    private Duration cacheTtl;
+
+    @Value("${jwt.authentication-mode:database}")
+    private String authenticationMode;
+
+    private final IdentityService identityService;
     private final TokenRepository tokenRepository;
     private final AccountRepository accountRepository;
+    private final MeterRegistry meterRegistry;
+    private final TokenRevocationService tokenRevocationService;
+
+    // Tokens that passed validation, each kept until its own expiry or the cache TTL, whichever
+    // comes first, so a token removed by another instance is looked up again soon after
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    private record VerifiedToken(JwtPrincipal principal, int epoch, long expiresAt) {
+    }
+
+    @PostConstruct
+    void initCache() {
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String token, VerifiedToken verified, long currentTime) {
+                        return Math.min(cacheTtl.toNanos(), TimeUnit.MILLISECONDS.toNanos(
+                                Math.max(0, verified.expiresAt() - System.currentTimeMillis())));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, VerifiedToken verified, long currentTime,
+                            long currentDuration) {
+                        return expireAfterCreate(token, verified, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, VerifiedToken verified, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt");
+    }
 
     @Override
     public String getUsernameFromToken(String token) throws InvalidTokenException {
@@ -67,19 +135,31 @@ public class TokenServiceImpl implements TokenService {
     }
 
     private String doGenerateToken(UserDetails userDetails, Date expiry) {
-        return Jwts.builder().setSubject(userDetails.getUsername())
+        return doGenerateToken(userDetails, expiry, tokenRevocationService.getTokenEpoch(userDetails.getUsername()));
+    }
+
+    private String doGenerateToken(UserDetails userDetails, Date expiry, int tokenEpoch) {
+        val builder = Jwts.builder().setSubject(userDetails.getUsername())
+                .setId(UUID.randomUUID().toString())
+                .claim(EPOCH_CLAIM, tokenEpoch)
                 .setIssuedAt(new Date())
-                .setExpiration(expiry)
-                .signWith(SignatureAlgorithm.HS512, secret).compact();
+                .setExpiration(expiry);
+
+        // Tokens are stored in a 255 character column, so the claim is only added when there is something to carry
+        if (!userDetails.getAuthorities().isEmpty()) {
+            builder.claim(AUTHORITIES_CLAIM, AuthorityUtils.authorityListToSet(userDetails.getAuthorities()));
+        }
+
+        return builder.signWith(SignatureAlgorithm.HS512, secret).compact();
     }
 
     @Override
     public UserDetails loadUserByUsername(String accountNumber) throws UsernameNotFoundException {
-        val user = userRepository.findByAccountAccountNumber(accountNumber)
+        val identity = identityService.findByAccountNumber(accountNumber)
                 .orElseThrow(() -> new UsernameNotFoundException(
                         String.format(ApiMessages.USER_NOT_FOUND_BY_ACCOUNT.getMessage(), accountNumber)));
 
-        return withUsername(accountNumber).password(user.getPassword()).build();
+        return withUsername(accountNumber).password(identity.password()).build();
     }
 
     @Override
@@ -114,45 +194,86 @@ public class TokenServiceImpl implements TokenService {
     @Override
     @Transactional(readOnly = true)
     public void validateToken(String token) throws InvalidTokenException {
-        try {
-            getAllClaimsFromToken(token);
-            if (tokenRepository.findByToken(token) == null) {
-                throw new InvalidTokenException(ApiMessages.TOKEN_NOT_FOUND_ERROR.getMessage());
-            }
-        } catch (InvalidTokenException e) {
-            log.error("Token validation failed: {}", e.getMessage());
-            throw e;
+        authenticate(token);
+    }
+
+    /**
+     * Returns the principal of a valid token, built from its claims. A token
+     * seen before is answered from the cache; otherwise it is parsed once and
+     * cached until it expires. What else is checked depends on the mode:
+     * database requires the token row, revocation consults the in-memory
+     * deny-list and account epoch, and stateless trusts the claims alone.
+     */
+    @Override
+    public UserDetails authenticate(String token) throws InvalidTokenException {
+        val cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            checkNotRevoked(cached);
+            return cached.principal();
+        }
+
+        val claims = getAllClaimsFromToken(token);
+        if (isAuthenticationMode(DATABASE_AUTHENTICATION) && tokenRepository.findByToken(token) == null) {
+            log.error("Token validation failed: {}", ApiMessages.TOKEN_NOT_FOUND_ERROR.getMessage());
+            throw new InvalidTokenException(ApiMessages.TOKEN_NOT_FOUND_ERROR.getMessage());
         }
+
+        val epoch = claims.get(EPOCH_CLAIM, Integer.class);
+        val verified = new VerifiedToken(
+                new JwtPrincipal(claims.getSubject(), getAuthorities(claims), claims.getId()),
+                epoch != null ? epoch : 0,
+                claims.getExpiration().getTime());
+
+        checkNotRevoked(verified);
+        verifiedTokens.put(token, verified);
+        return verified.principal();
+    }
+
+    private void checkNotRevoked(VerifiedToken verified) throws InvalidTokenException {
+        if (isAuthenticationMode(REVOCATION_AUTHENTICATION) && tokenRevocationService.isRevoked(
+                verified.principal().getUsername(), verified.principal().getTokenId(), verified.epoch())) {
+            log.error("Token validation failed: {}", ApiMessages.TOKEN_REVOKED_ERROR.getMessage());
+            throw new InvalidTokenException(ApiMessages.TOKEN_REVOKED_ERROR.getMessage());
+        }
+    }
+
+    private boolean isAuthenticationMode(String mode) {
+        return mode.equalsIgnoreCase(authenticationMode);
+    }
+
+    private static Collection<? extends GrantedAuthority> getAuthorities(Claims claims) {
+        List<?> authorities = claims.get(AUTHORITIES_CLAIM, List.class);
+        if (authorities == null || authorities.isEmpty()) {
+            return AuthorityUtils.NO_AUTHORITIES;
+        }
+        return AuthorityUtils.createAuthorityList(authorities.stream().map(String::valueOf).toList());
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class, isolation = Isolation.READ_COMMITTED)
     public String generateAndSaveToken(String accountNumber) throws InvalidTokenException {
         try {
-            // First, verify the account exists and has an ID
-            val account = accountRepository.findByAccountNumber(accountNumber)
+            // The identity is usually still cached from authenticating the login
+            val identity = identityService.findByAccountNumber(accountNumber)
                     .orElseThrow(() -> new InvalidTokenException("Account not found"));
             
-            if (account.getId() == null) {
-                throw new InvalidTokenException("Account has no ID");
-            }
-            
-            log.info("Generating token for account: {} with ID: {}", accountNumber, account.getId());
+            log.info("Generating token for account: {} with ID: {}", accountNumber, identity.accountId());
             
-            // Generate the token
-            val userDetails = loadUserByUsername(accountNumber);
-            val token = generateToken(userDetails);
-            
-            // Check if token already exists
-            if (tokenRepository.findByToken(token) != null) {
-                throw new InvalidTokenException(ApiMessages.TOKEN_ALREADY_EXISTS_ERROR.getMessage());
+            // The identity query already read the epoch, so a login does not look it up again
+            val userDetails = withUsername(accountNumber).password(identity.password()).build();
+            val token = doGenerateToken(userDetails, new Date(System.currentTimeMillis() + expiration),
+                    identity.tokenEpoch() != null ? identity.tokenEpoch() : 0);
+
+            // Revocation mode tracks revoked tokens instead of issued ones
+            if (isAuthenticationMode(REVOCATION_AUTHENTICATION)) {
+                return token;
             }
             
-            // Create and save the token
+            // Every token carries a fresh jti, so it cannot already exist; the unique column still guards it
             val tokenObj = new Token();
             tokenObj.setToken(token);
             tokenObj.setExpiryAt(getExpirationDateFromToken(token));
-            tokenObj.setAccount(account);  // Set the account reference
+            tokenObj.setAccount(accountRepository.getReferenceById(identity.accountId()));
             tokenObj.setCreatedAt(new Date());
             
             // Save the token and verify it was saved
@@ -162,7 +283,7 @@ public class TokenServiceImpl implements TokenService {
             }
             
             log.info("Token saved successfully with ID: {} for account: {} with account ID: {}", 
-                    savedToken.getId(), account.getAccountNumber(), account.getId());
+                    savedToken.getId(), accountNumber, identity.accountId());
             
             return token;
         } catch (InvalidTokenException e) {
@@ -217,6 +338,11 @@ public class TokenServiceImpl implements TokenService {
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void invalidateToken(String token) {
+        verifiedTokens.invalidate(token);
+        if (isAuthenticationMode(REVOCATION_AUTHENTICATION)) {
+            revokeToken(token);
+        }
+
         try {
             if (tokenRepository.findByToken(token) != null) {
                 tokenRepository.deleteByToken(token);
@@ -228,4 +354,32 @@ public class TokenServiceImpl implements TokenService {
         }
     }
 
+    private void revokeToken(String token) {
+        try {
+            val claims = Jwts.parser().setSigningKey(secret).parseClaimsJws(token).getBody();
+            if (claims.getId() != null) {
+                tokenRevocationService.revoke(claims.getSubject(), claims.getId(), claims.getExpiration());
+            }
+        } catch (JwtException | IllegalArgumentException e) {
+            // Expired or invalid tokens are rejected anyway
+        }
+    }
+
+    /**
+     * Logs the account out everywhere: its epoch moves on, which revokes all
+     * of its tokens in revocation mode, and its token rows are deleted for
+     * the database mode.
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void invalidateAllTokens(String accountNumber) {
+        tokenRevocationService.revokeAll(accountNumber);
+        // Its cached identity still carries the old epoch, which new tokens would be issued under
+        identityService.evict(accountNumber);
+        verifiedTokens.asMap().values().removeIf(verified -> verified.principal().getUsername().equals(accountNumber));
+
+        accountRepository.findByAccountNumber(accountNumber)
+                .ifPresent(account -> tokenRepository.deleteAll(List.of(tokenRepository.findAllByAccount(account))));
+    }
+
 }
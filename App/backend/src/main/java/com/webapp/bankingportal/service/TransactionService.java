@@ -1,11 +1,15 @@
 package com.webapp.bankingportal.service;
 
-import java.util.List;
+import java.util.function.Consumer;
 
 import com.webapp.bankingportal.dto.TransactionDTO;
+import com.webapp.bankingportal.dto.TransactionFilter;
+import com.webapp.bankingportal.dto.TransactionPage;
 
 public interface TransactionService {
 
-	List<TransactionDTO> getAllTransactionsByAccountNumber(String accountNumber);
+	TransactionPage getTransactions(String accountNumber, TransactionFilter filter);
+
+	long exportTransactions(String accountNumber, TransactionFilter filter, Consumer<TransactionDTO> consumer);
 
 }
@@ -1,13 +1,16 @@
 package com.webapp.bankingportal.service;
 
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Date;
+import java.util.function.Consumer;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.webapp.bankingportal.dto.TransactionDTO;
-import com.webapp.bankingportal.mapper.TransactionMapper;
+import com.webapp.bankingportal.dto.TransactionFilter;
+import com.webapp.bankingportal.dto.TransactionPage;
 import com.webapp.bankingportal.repository.TransactionRepository;
+import com.webapp.bankingportal.util.ApiMessages;
 
 import lombok.RequiredArgsConstructor;
 import lombok.val;
@@ -16,20 +19,88 @@ import lombok.val;
 @RequiredArgsConstructor
 public class TransactionServiceImpl implements TransactionService {
 
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+
     private final TransactionRepository transactionRepository;
-    private final TransactionMapper transactionMapper;
 
+    /**
+     * Returns the newest transactions first, one page at a time. The cursor
+     * is the date and id of the last transaction on the previous page, so
+     * the database seeks straight to the next page instead of skipping rows.
+     * Without a cursor or limit the whole history comes back as one page,
+     * as it did before paging, for clients that do not follow the cursor.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public TransactionPage getTransactions(String accountNumber, TransactionFilter filter) {
+        val type = filter.type() != null ? filter.type().name() : null;
+        if ((filter.cursor() == null || filter.cursor().isBlank()) && filter.limit() == null) {
+            return new TransactionPage(transactionRepository.findPage(accountNumber, filter.from(), filter.to(), type,
+                    null, null, Integer.MAX_VALUE), null);
+        }
+
+        val pageSize = pageSize(filter.limit());
+
+        Date cursorDate = null;
+        Long cursorId = null;
+        if (filter.cursor() != null && !filter.cursor().isBlank()) {
+            val parts = filter.cursor().split(",");
+            try {
+                if (parts.length != 2) {
+                    throw new NumberFormatException();
+                }
+                cursorDate = new Date(Long.parseLong(parts[0].trim()));
+                cursorId = Long.parseLong(parts[1].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(ApiMessages.TRANSACTION_CURSOR_INVALID_ERROR.getMessage());
+            }
+        }
+
+        // One extra row tells whether there is a next page
+        val transactions = transactionRepository.findPage(accountNumber, filter.from(), filter.to(), type,
+                cursorDate, cursorId, pageSize + 1);
+
+        val hasNext = transactions.size() > pageSize;
+        val page = hasNext ? transactions.subList(0, pageSize) : transactions;
+
+        return new TransactionPage(page, hasNext ? cursorOf(page.get(page.size() - 1)) : null);
+    }
+
+    /**
+     * Hands the whole filtered history, newest first, to the consumer one row
+     * at a time as it comes off the database cursor. Cursor and limit of the
+     * filter are ignored. Returns the number of transactions exported.
+     */
     @Override
-    public List<TransactionDTO> getAllTransactionsByAccountNumber(String accountNumber) {
-        val transactions = transactionRepository
-                .findBySourceAccount_AccountNumberOrTargetAccount_AccountNumber(accountNumber, accountNumber);
+    @Transactional(readOnly = true, timeoutString = "${transaction.export.timeout:300}")
+    public long exportTransactions(String accountNumber, TransactionFilter filter,
+            Consumer<TransactionDTO> consumer) {
 
-        val transactionDTOs = transactions.parallelStream()
-                .map(transactionMapper::toDto)
-                .sorted((t1, t2) -> t2.getTransactionDate().compareTo(t1.getTransactionDate()))
-                .collect(Collectors.toList());
+        val type = filter.type() != null ? filter.type().name() : null;
+        try (val transactions = transactionRepository.streamAll(accountNumber, filter.from(), filter.to(), type)) {
+            val iterator = transactions.iterator();
+            long count = 0;
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next());
+                count++;
+            }
+            return count;
+        }
+    }
+
+    private static int pageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException(ApiMessages.TRANSACTION_LIMIT_INVALID_ERROR.getMessage());
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
 
-        return transactionDTOs;
+    private static String cursorOf(TransactionDTO transaction) {
+        return transaction.getTransactionDate().getTime() + "," + transaction.getId();
     }
 
 }
@@ -5,6 +5,7 @@ import java.util.concurrent.CompletableFuture;
 import java.math.BigDecimal;
 import java.util.Map;
 
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -16,6 +17,7 @@ import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.web.servlet.ModelAndView;
 
+import com.webapp.bankingportal.dto.GeolocationResponse;
 import com.webapp.bankingportal.dto.LoginRequest;
 import com.webapp.bankingportal.dto.OtpRequest;
 import com.webapp.bankingportal.dto.OtpVerificationRequest;
@@ -24,6 +26,7 @@ import com.webapp.bankingportal.entity.User;
 import com.webapp.bankingportal.entity.Account;
 import com.webapp.bankingportal.exception.InvalidTokenException;
 import com.webapp.bankingportal.exception.PasswordResetException;
+import com.webapp.bankingportal.exception.TooManyRequestsException;
 import com.webapp.bankingportal.exception.UnauthorizedException;
 import com.webapp.bankingportal.exception.UserInvalidException;
 import com.webapp.bankingportal.mapper.UserMapper;
@@ -40,6 +43,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.val;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 
 @Service
 @Slf4j
@@ -50,6 +54,7 @@ public class UserServiceImpl implements UserService {
     private final AuthenticationManager authenticationManager;
     private final EmailService emailService;
     private final GeolocationService geolocationService;
+    private final IdentityService identityService;
     private final OtpService otpService;
     private final PasswordEncoder passwordEncoder;
     private final TokenService tokenService;
@@ -106,13 +111,15 @@ public class UserServiceImpl implements UserService {
         try {
             log.info("Attempting login for user: {}", loginRequest.identifier());
             
-            // First, find the user
-            val user = getUserByIdentifier(loginRequest.identifier());
-            log.info("User found with ID: {}", user.getId());
+            // Resolve the identifier in one query; authentication and token issuance reuse the result
+            var identity = identityService.resolve(loginRequest.identifier());
+            log.info("User found with ID: {}", identity.userId());
             
             // Check if user has an account
-            if (user.getAccount() == null) {
+            if (identity.accountNumber() == null) {
                 log.info("User has no account, creating new account");
+                val user = userRepository.findById(identity.userId())
+                        .orElseThrow(() -> new UserInvalidException("User not found"));
                 // Create account in a new transaction
                 val account = createAccountInNewTransaction(user);
                 log.info("New account created with ID: {} and number: {}", account.getId(), account.getAccountNumber());
@@ -121,21 +128,20 @@ public class UserServiceImpl implements UserService {
                 user.setAccount(account);
                 userRepository.save(user);
                 log.info("User updated with new account");
+
+                identityService.evictIdentifier(loginRequest.identifier());
+                identity = identityService.findByAccountNumber(account.getAccountNumber())
+                        .orElseThrow(() -> new UserInvalidException("Account not properly created"));
             }
             
-            // Verify account exists and has an ID
-            val account = user.getAccount();
-            if (account == null || account.getId() == null) {
-                throw new UserInvalidException("Account not properly created");
-            }
-            
-            log.info("Verifying account with ID: {} and number: {}", account.getId(), account.getAccountNumber());
+            val accountNumber = identity.accountNumber();
+            log.info("Verifying account with ID: {} and number: {}", identity.accountId(), accountNumber);
             
             // Authenticate user using account number
             try {
                 authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
-                        account.getAccountNumber(),
+                        accountNumber,
                         loginRequest.password()
                     )
                 );
@@ -143,16 +149,22 @@ public class UserServiceImpl implements UserService {
             } catch (BadCredentialsException e) {
                 log.error("Authentication failed: {}", e.getMessage());
                 throw new UserInvalidException("Invalid credentials");
+            } catch (InternalAuthenticationServiceException e) {
+                // A full hashing executor while the user is looked up surfaces wrapped; it is not a bad login
+                if (e.getCause() instanceof TooManyRequestsException busy) {
+                    throw busy;
+                }
+                throw e;
             }
             
             // Generate token in a new transaction
-            log.info("Generating token for account: {}", account.getAccountNumber());
-            val token = tokenService.generateAndSaveToken(account.getAccountNumber());
+            log.info("Generating token for account: {}", accountNumber);
+            val token = tokenService.generateAndSaveToken(accountNumber);
             log.info("Token generated successfully");
             
             // Send notifications asynchronously and handle failures gracefully
             try {
-                sendLoginNotification(user, request.getRemoteAddr());
+                sendLoginNotification(identity.name(), identity.email(), request.getRemoteAddr());
             } catch (Exception e) {
                 log.warn("Failed to send login notification: {}", e.getMessage());
             }
@@ -163,6 +175,9 @@ public class UserServiceImpl implements UserService {
         } catch (UserInvalidException e) {
             log.error("Login failed: {}", e.getMessage());
             throw new InvalidTokenException(e.getMessage());
+        } catch (TooManyRequestsException e) {
+            log.warn("Login rejected: {}", e.getMessage());
+            throw e;
         } catch (Exception e) {
             log.error("Unexpected error during login: {}", e.getMessage());
             throw new InvalidTokenException("Login failed: " + e.getMessage());
@@ -170,6 +185,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public ResponseEntity<String> generateOtp(OtpRequest otpRequest) {
         val user = getUserByIdentifier(otpRequest.identifier());
         val otp = otpService.generateOTP(user.getAccount().getAccountNumber());
@@ -193,6 +209,7 @@ public class UserServiceImpl implements UserService {
         val existingUser = getUserByAccountNumber(accountNumber);
         updateUserDetails(existingUser, updatedUser);
         val savedUser = saveUser(existingUser);
+        identityService.evict(accountNumber);
         return ResponseEntity.ok(JsonUtil.toJson(new UserResponse(savedUser)));
     }
 
@@ -202,6 +219,10 @@ public class UserServiceImpl implements UserService {
         try {
             user.setPassword(passwordEncoder.encode(newPassword));
             userRepository.save(user);
+            if (user.getAccount() != null) {
+                identityService.evict(user.getAccount().getAccountNumber());
+                tokenService.invalidateAllTokens(user.getAccount().getAccountNumber());
+            }
             return true;
         } catch (Exception e) {
             throw new PasswordResetException(ApiMessages.PASSWORD_RESET_FAILURE.getMessage(), e);
@@ -324,16 +345,8 @@ public class UserServiceImpl implements UserService {
     }
 
     private ResponseEntity<String> sendOtpEmail(User user, String otp) {
-        val emailSendingFuture = otpService.sendOTPByEmail(
-                user.getEmail(), user.getName(), user.getAccount().getAccountNumber(), otp);
-
-        ResponseEntity<String> successResponse = ResponseEntity
-                .ok(String.format(ApiMessages.OTP_SENT_SUCCESS.getMessage(), user.getEmail()));
-        ResponseEntity<String> failureResponse = ResponseEntity.internalServerError()
-                .body(String.format(ApiMessages.OTP_SENT_FAILURE.getMessage(), user.getEmail()));
-
-        return emailSendingFuture.thenApply(result -> successResponse)
-                .exceptionally(e -> failureResponse).join();
+        otpService.sendOTPByEmail(user.getEmail(), user.getName(), user.getAccount().getAccountNumber(), otp);
+        return ResponseEntity.ok(String.format(ApiMessages.OTP_SENT_SUCCESS.getMessage(), user.getEmail()));
     }
 
     private void validateOtpRequest(OtpVerificationRequest request) {
@@ -357,32 +370,45 @@ public class UserServiceImpl implements UserService {
         userMapper.updateUser(updatedUser, existingUser);
     }
 
-    private CompletableFuture<Boolean> sendLoginNotification(User user, String ip) {
+    private CompletableFuture<Boolean> sendLoginNotification(String name, String email, String ip) {
         val loginTime = new Timestamp(System.currentTimeMillis()).toString();
 
-        return geolocationService.getGeolocation(ip)
-                .thenComposeAsync(geolocationResponse -> {
+        return locate(ip)
+                .thenCompose(geolocationResponse -> {
                     try {
                         val loginLocation = String.format("%s, %s",
                                 geolocationResponse.getCity().getNames().get("en"),
                                 geolocationResponse.getCountry().getNames().get("en"));
-                        return sendLoginEmail(user, loginTime, loginLocation);
+                        return sendLoginEmail(name, email, loginTime, loginLocation);
                     } catch (Exception e) {
                         log.warn("Failed to process geolocation response: {}", e.getMessage());
-                        return sendLoginEmail(user, loginTime, "Unknown");
+                        return sendLoginEmail(name, email, loginTime, "Unknown");
                     }
                 })
-                .exceptionallyComposeAsync(throwable -> {
+                .exceptionallyCompose(throwable -> {
                     log.warn("Failed to get geolocation: {}", throwable.getMessage());
-                    return sendLoginEmail(user, loginTime, "Unknown");
+                    return sendLoginEmail(name, email, loginTime, "Unknown");
                 });
     }
 
-    private CompletableFuture<Boolean> sendLoginEmail(User user, String loginTime, String loginLocation) {
+    /**
+     * A full geolocation executor refuses the lookup rather than queueing it,
+     * which only costs the email its location.
+     */
+    private CompletableFuture<GeolocationResponse> locate(String ip) {
+        try {
+            return geolocationService.getGeolocation(ip);
+        } catch (TaskRejectedException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private CompletableFuture<Boolean> sendLoginEmail(String name, String email, String loginTime,
+            String loginLocation) {
         try {
-            val emailText = emailService.getLoginEmailTemplate(user.getName(), loginTime, loginLocation);
-            return emailService.sendEmail(user.getEmail(), ApiMessages.EMAIL_SUBJECT_LOGIN.getMessage(), emailText)
-                    .thenApplyAsync(result -> true)
+            val content = emailService.getLoginEmailTemplate(name, loginTime, loginLocation);
+            return emailService.sendEmail(email, ApiMessages.EMAIL_SUBJECT_LOGIN.getMessage(), content)
+                    .thenApply(result -> true)
                     .exceptionally(ex -> {
                         log.warn("Failed to send login email: {}", ex.getMessage());
                         return false;
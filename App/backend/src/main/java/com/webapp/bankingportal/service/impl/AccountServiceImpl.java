@@ -5,12 +5,15 @@ import com.webapp.bankingportal.entity.Account;
 import com.webapp.bankingportal.entity.Transaction;
 import com.webapp.bankingportal.entity.TransactionType;
 import com.webapp.bankingportal.entity.User;
+import com.webapp.bankingportal.exception.InsufficientBalanceException;
 import com.webapp.bankingportal.exception.InvalidAmountException;
 import com.webapp.bankingportal.exception.UnauthorizedException;
 import com.webapp.bankingportal.repository.AccountRepository;
 import com.webapp.bankingportal.repository.TransactionRepository;
 import com.webapp.bankingportal.repository.UserRepository;
 import com.webapp.bankingportal.service.AccountService;
+import com.webapp.bankingportal.service.LedgerService;
+import com.webapp.bankingportal.util.AccountLockManager;
 import com.webapp.bankingportal.util.ApiMessages;
 import lombok.RequiredArgsConstructor;
 import lombok.val;
@@ -19,7 +22,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.Date;
-import java.util.Optional;
 import java.util.Random;
 
 import org.slf4j.Logger;
@@ -32,6 +34,8 @@ public class AccountServiceImpl implements AccountService {
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
     private final UserRepository userRepository;
+    private final AccountLockManager accountLockManager;
+    private final LedgerService ledgerService;
     private static final Logger log = LoggerFactory.getLogger(AccountServiceImpl.class);
     private static final BigDecimal MAX_AMOUNT = new BigDecimal("100000.00");
 
@@ -108,132 +112,157 @@ public class AccountServiceImpl implements AccountService {
         accountRepository.delete(account);
     }
 
-    private void validateAccountAndPin(String accountNumber, String pin) {
-        Account account = accountRepository.findByAccountNumber(accountNumber)
+    private Account getAccount(String accountNumber) {
+        return accountRepository.findByAccountNumber(accountNumber)
                 .orElseThrow(() -> new RuntimeException("Account not found"));
-        
+    }
+
+    private Account lockAccount(String accountNumber, String notFoundMessage) {
+        return accountRepository.findByAccountNumberForUpdate(accountNumber)
+                .orElseThrow(() -> new RuntimeException(notFoundMessage));
+    }
+
+    private void validatePin(Account account, String pin) {
         if (!account.getPin().equals(pin)) {
             throw new UnauthorizedException("Invalid PIN");
         }
     }
 
-    @Override
-    @Transactional
-    public AccountResponse cashDeposit(String accountNumber, String pin, BigDecimal amount) {
-        log.info("Processing cash deposit for account: {} with amount: {}", accountNumber, amount);
-        
-        // Validate amount
+    private void validateAmount(BigDecimal amount) {
         if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new InvalidAmountException(ApiMessages.AMOUNT_NEGATIVE_ERROR.getMessage());
         }
-        
+
         if (amount.compareTo(MAX_AMOUNT) > 0) {
             throw new InvalidAmountException(ApiMessages.AMOUNT_EXCEED_100_000_ERROR.getMessage());
         }
-        
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new RuntimeException("Account not found"));
-        
-        log.info("Found account with ID: {} and number: {}", account.getId(), account.getAccountNumber());
-        
-        validateAccountAndPin(accountNumber, pin);
-        
-        BigDecimal newBalance = account.getBalance().add(amount);
-        account.setBalance(newBalance);
-        
-        // Save account and verify it has an ID
-        account = accountRepository.save(account);
-        if (account.getId() == null) {
-            throw new RuntimeException("Failed to save account - no ID generated");
+    }
+
+    /**
+     * Debits the account with a single guarded UPDATE. Zero affected rows means
+     * a concurrent withdrawal or transfer got to the money first.
+     */
+    private void debit(String accountNumber, BigDecimal amount) {
+        if (accountRepository.debitBalance(accountNumber, amount) == 0) {
+            throw new InsufficientBalanceException(ApiMessages.BALANCE_INSUFFICIENT_ERROR.getMessage());
         }
-        
-        log.info("Account updated with ID: {} and new balance: {}", account.getId(), newBalance);
-        
-        // Verify account exists in database
-        val verifiedAccount = accountRepository.findById(account.getId())
-            .orElseThrow(() -> new RuntimeException("Account not found after save"));
-        log.info("Verified account exists with ID: {} and number: {}", verifiedAccount.getId(), verifiedAccount.getAccountNumber());
-        
-        // Record the transaction
+    }
+
+    private void credit(String accountNumber, BigDecimal amount) {
+        if (accountRepository.creditBalance(accountNumber, amount) == 0) {
+            throw new RuntimeException("Account not found");
+        }
+    }
+
+    private AccountResponse toResponse(Account account) {
+        // The balance is re-read because the entity still holds the value from before the UPDATE
+        val balance = accountRepository.findBalanceByAccountNumber(account.getAccountNumber())
+                .orElseThrow(() -> new RuntimeException("Account not found"));
+        return new AccountResponse(account.getAccountNumber(), balance, account.getAccountType().name());
+    }
+
+    private void recordTransaction(BigDecimal amount, TransactionType type, Account sourceAccount, Account targetAccount) {
         Transaction transaction = new Transaction();
         transaction.setAmount(amount);
-        transaction.setTransactionType(TransactionType.CASH_DEPOSIT);
+        transaction.setTransactionType(type);
         transaction.setTransactionDate(new Date());
-        transaction.setSourceAccount(verifiedAccount);  // Use the verified account
-        
-        log.info("Creating transaction with source account ID: {}", verifiedAccount.getId());
-        
-        // Save transaction and verify it was saved
+        transaction.setSourceAccount(sourceAccount);
+        transaction.setTargetAccount(targetAccount);
+
         val savedTransaction = transactionRepository.save(transaction);
-        if (savedTransaction.getId() == null) {
-            throw new RuntimeException("Failed to save transaction - no ID generated");
+        log.info("Transaction saved with ID: {} for account: {}", savedTransaction.getId(), sourceAccount.getAccountNumber());
+
+        switch (type) {
+            case CASH_DEPOSIT -> ledgerService.post(savedTransaction.getId(),
+                    LedgerService.CASH_ACCOUNT, sourceAccount.getAccountNumber(), amount);
+            case CASH_WITHDRAWAL -> ledgerService.post(savedTransaction.getId(),
+                    sourceAccount.getAccountNumber(), LedgerService.CASH_ACCOUNT, amount);
+            default -> ledgerService.post(savedTransaction.getId(),
+                    sourceAccount.getAccountNumber(), targetAccount.getAccountNumber(), amount);
         }
-        
-        log.info("Transaction saved with ID: {} for account: {}", savedTransaction.getId(), accountNumber);
-        return new AccountResponse(account);
+    }
+
+    @Override
+    @Transactional
+    public AccountResponse cashDeposit(String accountNumber, String pin, BigDecimal amount) {
+        log.info("Processing cash deposit for account: {} with amount: {}", accountNumber, amount);
+        validateAmount(amount);
+
+        Account account = getAccount(accountNumber);
+        validatePin(account, pin);
+
+        credit(accountNumber, amount);
+        recordTransaction(amount, TransactionType.CASH_DEPOSIT, account, null);
+
+        return toResponse(account);
     }
 
     @Override
     @Transactional
     public AccountResponse cashWithdrawal(String accountNumber, String pin, BigDecimal amount) {
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new RuntimeException("Account not found"));
-        
-        validateAccountAndPin(accountNumber, pin);
-        
-        if (account.getBalance().compareTo(amount) < 0) {
-            throw new RuntimeException("Insufficient funds");
-        }
-        
-        BigDecimal newBalance = account.getBalance().subtract(amount);
-        account.setBalance(newBalance);
-        accountRepository.save(account);
-        
-        // Record the transaction
-        Transaction transaction = new Transaction();
-        transaction.setAmount(amount);
-        transaction.setTransactionType(TransactionType.CASH_WITHDRAWAL);
-        transaction.setTransactionDate(new Date());
-        transaction.setSourceAccount(account);
-        transactionRepository.save(transaction);
-        
-        return new AccountResponse(account);
+        log.info("Processing cash withdrawal for account: {} with amount: {}", accountNumber, amount);
+        validateAmount(amount);
+
+        Account account = getAccount(accountNumber);
+        validatePin(account, pin);
+
+        debit(accountNumber, amount);
+        recordTransaction(amount, TransactionType.CASH_WITHDRAWAL, account, null);
+
+        return toResponse(account);
     }
 
     @Override
     @Transactional
     public AccountResponse fundTransfer(String sourceAccountNumber, String targetAccountNumber, BigDecimal amount, String pin) {
-        Account sourceAccount = accountRepository.findByAccountNumber(sourceAccountNumber)
+        log.info("Processing fund transfer from account: {} to account: {} with amount: {}",
+                sourceAccountNumber, targetAccountNumber, amount);
+        validateAmount(amount);
+
+        accountLockManager.lockUntilCompletion(sourceAccountNumber, targetAccountNumber);
+
+        // Rows are locked in account number order so opposite transfers on different nodes cannot deadlock
+        Account sourceAccount;
+        Account targetAccount;
+        if (sourceAccountNumber.compareTo(targetAccountNumber) <= 0) {
+            sourceAccount = lockAccount(sourceAccountNumber, "Source account not found");
+            targetAccount = lockAccount(targetAccountNumber, "Target account not found");
+        } else {
+            targetAccount = lockAccount(targetAccountNumber, "Target account not found");
+            sourceAccount = lockAccount(sourceAccountNumber, "Source account not found");
+        }
+
+        return transfer(sourceAccount, targetAccount, amount, pin);
+    }
+
+    /**
+     * Same as {@link #fundTransfer} but without any locking. Only for callers
+     * that already serialize every mutation of both accounts, such as
+     * {@link ShardedAccountService}.
+     */
+    @Transactional
+    public AccountResponse fundTransferWithoutLocking(String sourceAccountNumber, String targetAccountNumber,
+            BigDecimal amount, String pin) {
+        log.info("Processing fund transfer from account: {} to account: {} with amount: {}",
+                sourceAccountNumber, targetAccountNumber, amount);
+        validateAmount(amount);
+
+        val sourceAccount = accountRepository.findByAccountNumber(sourceAccountNumber)
                 .orElseThrow(() -> new RuntimeException("Source account not found"));
-        
-        Account targetAccount = accountRepository.findByAccountNumber(targetAccountNumber)
+        val targetAccount = accountRepository.findByAccountNumber(targetAccountNumber)
                 .orElseThrow(() -> new RuntimeException("Target account not found"));
-        
-        validateAccountAndPin(sourceAccountNumber, pin);
-        
-        if (sourceAccount.getBalance().compareTo(amount) < 0) {
-            throw new RuntimeException("Insufficient funds");
-        }
-        
-        BigDecimal newSourceBalance = sourceAccount.getBalance().subtract(amount);
-        BigDecimal newTargetBalance = targetAccount.getBalance().add(amount);
-        
-        sourceAccount.setBalance(newSourceBalance);
-        targetAccount.setBalance(newTargetBalance);
-        
-        accountRepository.save(sourceAccount);
-        accountRepository.save(targetAccount);
-        
-        // Record the transaction
-        Transaction transaction = new Transaction();
-        transaction.setAmount(amount);
-        transaction.setTransactionType(TransactionType.CASH_TRANSFER);
-        transaction.setTransactionDate(new Date());
-        transaction.setSourceAccount(sourceAccount);
-        transaction.setTargetAccount(targetAccount);
-        transactionRepository.save(transaction);
-        
-        return new AccountResponse(sourceAccount);
+
+        return transfer(sourceAccount, targetAccount, amount, pin);
+    }
+
+    private AccountResponse transfer(Account sourceAccount, Account targetAccount, BigDecimal amount, String pin) {
+        validatePin(sourceAccount, pin);
+
+        debit(sourceAccount.getAccountNumber(), amount);
+        credit(targetAccount.getAccountNumber(), amount);
+        recordTransaction(amount, TransactionType.CASH_TRANSFER, sourceAccount, targetAccount);
+
+        return toResponse(sourceAccount);
     }
 
     @Override
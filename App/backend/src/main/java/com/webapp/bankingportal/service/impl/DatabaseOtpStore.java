@@ -0,0 +1,42 @@
+package com.webapp.bankingportal.service.impl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.webapp.bankingportal.repository.OtpInfoRepository;
+import com.webapp.bankingportal.service.OtpStore;
+
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+
+/**
+ * OTPs shared by all instances through the otp_info table, so an OTP can be
+ * verified by any instance. Saving is one upsert and verifying one indexed
+ * read; expired rows are left to the sweeper.
+ */
+@Service
+@ConditionalOnProperty(name = "otp.store", havingValue = "database")
+@RequiredArgsConstructor
+public class DatabaseOtpStore implements OtpStore {
+
+    private final OtpInfoRepository otpInfoRepository;
+
+    @Override
+    @Transactional
+    public void save(String accountNumber, String otpHash, Duration ttl) {
+        val now = LocalDateTime.now();
+        otpInfoRepository.upsert(accountNumber, otpHash, now, now.plus(ttl));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean matches(String accountNumber, String otpHash) {
+        return otpInfoRepository.existsByAccountNumberAndOtpAndExpiresAtAfter(
+                accountNumber, otpHash, LocalDateTime.now());
+    }
+
+}
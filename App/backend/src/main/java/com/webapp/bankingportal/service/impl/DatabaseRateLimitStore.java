@@ -0,0 +1,41 @@
+package com.webapp.bankingportal.service.impl;
+
+import java.time.Duration;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.webapp.bankingportal.repository.RateLimitRepository;
+import com.webapp.bankingportal.service.RateLimitStore;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Rate limit windows shared by all instances through the rate_limits
+ * table. Each hit is one upsert and one read of the same row, committed on
+ * its own so a failing caller still counts. Enable with
+ * rate-limit.store=database when requests for a key may reach any instance.
+ */
+@Service
+@ConditionalOnProperty(name = "rate-limit.store", havingValue = "database")
+@RequiredArgsConstructor
+public class DatabaseRateLimitStore implements RateLimitStore {
+
+    private final RateLimitRepository rateLimitRepository;
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long tryAcquire(String key, int limit, Duration window) {
+        rateLimitRepository.hit(key, window.toNanos() / 1000);
+        return rateLimitRepository.findWaitMillis(key, limit);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void reset(String key) {
+        rateLimitRepository.deleteById(key);
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.webapp.bankingportal.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.webapp.bankingportal.service.OtpStore;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.val;
+
+/**
+ * OTPs of this instance, each expiring after its own ttl. Verification must
+ * reach the instance that generated the OTP, so use otp.store=database when
+ * requests are not routed by account. Pending OTPs are lost on restart and
+ * have to be requested again.
+ */
+@Service
+@ConditionalOnProperty(name = "otp.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOtpStore implements OtpStore {
+
+    private final Cache<String, Entry> otps;
+
+    public InMemoryOtpStore(
+            @Value("${otp.cache.maximum-size:100000}") long maximumSize,
+            MeterRegistry meterRegistry) {
+
+        this.otps = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, Entry>() {
+
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        return entry.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return entry.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, otps, "otp");
+    }
+
+    @Override
+    public void save(String accountNumber, String otpHash, Duration ttl) {
+        otps.put(accountNumber, new Entry(otpHash.getBytes(StandardCharsets.US_ASCII), ttl.toNanos()));
+    }
+
+    @Override
+    public boolean matches(String accountNumber, String otpHash) {
+        val entry = otps.getIfPresent(accountNumber);
+        return entry != null && MessageDigest.isEqual(entry.hash(), otpHash.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private record Entry(byte[] hash, long ttlNanos) {
+    }
+
+}
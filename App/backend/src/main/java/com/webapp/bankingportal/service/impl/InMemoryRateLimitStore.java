@@ -0,0 +1,325 @@
+package com.webapp.bankingportal.service.impl;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.webapp.bankingportal.service.RateLimitStore;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.val;
+
+/**
+ * Rate limit windows of this instance, sized for millions of keys. The
+ * state of a key is one long packing the first hit of its window with the
+ * hit count, kept in open-addressing tables split over locked stripes, so
+ * the table holds no objects for a key besides its string.
+ *
+ * Closed windows are dropped by a timing wheel with one slot per tick: a
+ * window is filed under the first tick after it closes and removed when
+ * the wheel passes that slot, unless the key has opened a newer window
+ * meanwhile.
+ * Windows longer than one turn of the wheel stay filed for further turns.
+ * Filing a window allocates an {@link Expiry} and its queue node, which
+ * live until the wheel passes the slot, so each open window costs two
+ * small objects on top of the table.
+ */
+@Service
+@ConditionalOnProperty(name = "rate-limit.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private static final int COUNT_BITS = 16;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final long ABSENT = -1;
+
+    private final Stripe[] stripes;
+    private final int stripeShift;
+    private final ConcurrentLinkedQueue<Expiry>[] wheel;
+    private final long tickMillis;
+    private final ReentrantLock wheelLock = new ReentrantLock();
+    private final Counter rejections;
+    private long lastTick;
+
+    @SuppressWarnings("unchecked")
+    public InMemoryRateLimitStore(
+            @Value("${rate-limit.stripes:64}") int stripeCount,
+            @Value("${rate-limit.initial-capacity:65536}") int initialCapacity,
+            @Value("${rate-limit.tick:PT1S}") Duration tick,
+            @Value("${rate-limit.wheel-size:4096}") int wheelSize,
+            MeterRegistry meterRegistry) {
+
+        if (stripeCount < 1 || initialCapacity < 1 || wheelSize < 1 || tick.toMillis() < 1) {
+            throw new IllegalArgumentException("rate-limit.stripes, initial-capacity, wheel-size and tick must be positive");
+        }
+
+        val stripeTotal = Integer.highestOneBit(Math.max(stripeCount - 1, 1)) << 1;
+        this.stripes = new Stripe[stripeTotal];
+        this.stripeShift = Integer.SIZE - Integer.numberOfTrailingZeros(stripeTotal);
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe(Math.max(initialCapacity / stripeTotal, 2) * 2);
+        }
+
+        this.wheel = new ConcurrentLinkedQueue[Integer.highestOneBit(Math.max(wheelSize - 1, 1)) << 1];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.tickMillis = tick.toMillis();
+        this.lastTick = System.currentTimeMillis() / tickMillis;
+
+        this.rejections = Counter.builder("rate_limit.rejected")
+                .description("Hits refused because the window of their key was full")
+                .register(meterRegistry);
+        Gauge.builder("rate_limit.keys", this, InMemoryRateLimitStore::size)
+                .description("Keys with an open rate limit window")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public long tryAcquire(String key, int limit, Duration window) {
+        val now = System.currentTimeMillis();
+        val windowMillis = window.toMillis();
+        val hash = spread(key.hashCode());
+        val stripe = stripes[hash >>> stripeShift];
+
+        stripe.lock.lock();
+        try {
+            val state = stripe.get(key, hash);
+            if (state == ABSENT || firstHit(state) + windowMillis <= now) {
+                stripe.put(key, hash, pack(now, 1));
+            } else if (count(state) < limit) {
+                stripe.put(key, hash, pack(firstHit(state), count(state) + 1));
+                return 0;
+            } else {
+                rejections.increment();
+                return firstHit(state) + windowMillis - now;
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+
+        // Filed under the first tick at or after the deadline, so the window has closed when the wheel gets there
+        val deadline = now + windowMillis;
+        wheel[slot((deadline + tickMillis - 1) / tickMillis)].add(new Expiry(key, now, deadline));
+        return 0;
+    }
+
+    @Override
+    public void reset(String key) {
+        val hash = spread(key.hashCode());
+        val stripe = stripes[hash >>> stripeShift];
+
+        stripe.lock.lock();
+        try {
+            stripe.remove(key, hash, ABSENT);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Advances the wheel to the current tick, dropping the windows that
+     * closed in the slots it passes.
+     *
+     * @return the number of keys dropped
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.tick:PT1S}")
+    public int expire() {
+        if (!wheelLock.tryLock()) {
+            return 0;
+        }
+
+        try {
+            val now = System.currentTimeMillis();
+            val currentTick = now / tickMillis;
+            val firstTick = Math.max(lastTick + 1, currentTick - wheel.length + 1);
+
+            var expired = 0;
+            for (long tick = firstTick; tick <= currentTick; tick++) {
+                expired += expireSlot(wheel[slot(tick)], now);
+            }
+            lastTick = currentTick;
+            return expired;
+        } finally {
+            wheelLock.unlock();
+        }
+    }
+
+    public int size() {
+        var size = 0;
+        for (val stripe : stripes) {
+            size += stripe.size;
+        }
+        return size;
+    }
+
+    private int expireSlot(ConcurrentLinkedQueue<Expiry> slot, long now) {
+        var expired = 0;
+        // Only the entries present now, so those filed again for a later turn are not seen twice
+        for (int pending = slot.size(); pending > 0; pending--) {
+            val expiry = slot.poll();
+            if (expiry == null) {
+                break;
+            }
+
+            if (expiry.deadline() > now) {
+                slot.add(expiry);
+                continue;
+            }
+
+            val hash = spread(expiry.key().hashCode());
+            val stripe = stripes[hash >>> stripeShift];
+            stripe.lock.lock();
+            try {
+                if (stripe.remove(expiry.key(), hash, expiry.firstHit())) {
+                    expired++;
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return expired;
+    }
+
+    private int slot(long tick) {
+        return (int) (tick & (wheel.length - 1));
+    }
+
+    private static int spread(int hash) {
+        return (hash ^ (hash >>> 16)) * 0x9E3779B9;
+    }
+
+    private static long pack(long firstHit, int count) {
+        return (firstHit << COUNT_BITS) | Math.min(count, COUNT_MASK);
+    }
+
+    private static long firstHit(long state) {
+        return state >>> COUNT_BITS;
+    }
+
+    private static int count(long state) {
+        return (int) (state & COUNT_MASK);
+    }
+
+    private record Expiry(String key, long firstHit, long deadline) {
+    }
+
+    /**
+     * Open-addressing table from key to packed state with linear probing.
+     * Removal shifts the following entries back instead of leaving
+     * tombstones, so lookups never slow down as keys come and go.
+     */
+    private static final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private String[] keys;
+        private long[] states;
+        private volatile int size;
+
+        private Stripe(int capacity) {
+            val tableSize = Integer.highestOneBit(capacity - 1) << 1;
+            this.keys = new String[tableSize];
+            this.states = new long[tableSize];
+        }
+
+        private long get(String key, int hash) {
+            val index = indexOf(key, hash);
+            return index >= 0 ? states[index] : ABSENT;
+        }
+
+        private void put(String key, int hash, long state) {
+            val index = indexOf(key, hash);
+            if (index >= 0) {
+                states[index] = state;
+                return;
+            }
+
+            val free = -index - 1;
+            keys[free] = key;
+            states[free] = state;
+            if (++size > keys.length / 2) {
+                resize();
+            }
+        }
+
+        /**
+         * Removes the key if its window opened at firstHit, or whatever its
+         * window if firstHit is {@link #ABSENT}.
+         */
+        private boolean remove(String key, int hash, long firstHit) {
+            val index = indexOf(key, hash);
+            if (index < 0 || (firstHit != ABSENT && firstHit(states[index]) != firstHit)) {
+                return false;
+            }
+
+            delete(index);
+            return true;
+        }
+
+        private int indexOf(String key, int hash) {
+            val mask = keys.length - 1;
+            var index = hash & mask;
+            while (keys[index] != null) {
+                if (keys[index].equals(key)) {
+                    return index;
+                }
+                index = (index + 1) & mask;
+            }
+            return -index - 1;
+        }
+
+        private void delete(int index) {
+            val mask = keys.length - 1;
+            var hole = index;
+            var next = index;
+            while (true) {
+                next = (next + 1) & mask;
+                if (keys[next] == null) {
+                    break;
+                }
+
+                // An entry may fill the hole only if the hole lies between its home slot and where it sits
+                val home = spread(keys[next].hashCode()) & mask;
+                val movable = hole <= next ? (home <= hole || home > next) : (home <= hole && home > next);
+                if (movable) {
+                    keys[hole] = keys[next];
+                    states[hole] = states[next];
+                    hole = next;
+                }
+            }
+
+            keys[hole] = null;
+            states[hole] = 0;
+            size--;
+        }
+
+        private void resize() {
+            val oldKeys = keys;
+            val oldStates = states;
+            keys = new String[oldKeys.length * 2];
+            states = new long[oldStates.length * 2];
+
+            val mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] == null) {
+                    continue;
+                }
+
+                var index = spread(oldKeys[i].hashCode()) & mask;
+                while (keys[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                states[index] = oldStates[i];
+            }
+        }
+
+    }
+
+}
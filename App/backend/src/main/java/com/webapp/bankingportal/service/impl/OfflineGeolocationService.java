@@ -0,0 +1,445 @@
+package com.webapp.bankingportal.service.impl;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.webapp.bankingportal.dto.GeolocationResponse;
+import com.webapp.bankingportal.exception.GeolocationException;
+import com.webapp.bankingportal.service.GeolocationService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Resolves login locations from a local copy of an IP range dataset instead
+ * of calling the geolocation API. The CSV at geo.offline.path holds one
+ * range per line, sorted and not overlapping within each address family, in
+ * the DB-IP city layout: start, end, continent, country, region, city and
+ * optionally latitude and longitude.
+ *
+ * IPv4 ranges are kept in sorted int arrays and IPv6 ranges in a sorted
+ * table of fixed-size records mapped from a file outside the heap; both are
+ * binary searched. Locations are built once per distinct row and shared, so
+ * an IPv4 lookup allocates nothing but its future. The file is reloaded when it
+ * changes, checked every geo.offline.reload-interval. Addresses it does not
+ * cover go to the API when geo.offline.fallback is set.
+ *
+ * Enable with geo.provider=offline.
+ */
+@Slf4j
+@Service
+@Primary
+@ConditionalOnProperty(name = "geo.provider", havingValue = "offline")
+public class OfflineGeolocationService implements GeolocationService {
+
+    private static final int IPV6_RECORD_BYTES = 40;
+
+    private final Path path;
+    private final GeolocationService fallback;
+    private final Counter hits;
+    private final Counter misses;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private volatile Index index;
+    private volatile FileTime loadedModifiedTime;
+
+    public OfflineGeolocationService(
+            @Value("${geo.offline.path}") Path path,
+            @Value("${geo.offline.fallback:true}") boolean fallbackEnabled,
+            @Qualifier("geolocationServiceImpl") GeolocationService apiGeolocationService,
+            MeterRegistry meterRegistry) throws IOException {
+
+        this.path = path;
+        this.fallback = fallbackEnabled ? apiGeolocationService : null;
+        this.hits = Counter.builder("geolocation.offline.lookups")
+                .description("Lookups answered from the offline dataset")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("geolocation.offline.lookups")
+                .description("Lookups answered from the offline dataset")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("geolocation.offline.ranges", this, service -> service.index.size())
+                .description("IP ranges in the offline dataset")
+                .register(meterRegistry);
+
+        reload();
+    }
+
+    @Override
+    public CompletableFuture<GeolocationResponse> getGeolocation(String ip) {
+        val response = locate(ip);
+        if (response != null) {
+            hits.increment();
+            return CompletableFuture.completedFuture(response);
+        }
+
+        misses.increment();
+        if (fallback != null) {
+            return fallback.getGeolocation(ip);
+        }
+        return CompletableFuture.failedFuture(new GeolocationException("No location for IP: " + ip));
+    }
+
+    /**
+     * @return the location of the address, shared between lookups and not to
+     *         be modified, or null if the dataset does not cover it
+     */
+    public GeolocationResponse locate(String ip) {
+        val index = this.index;
+        val ipv4 = parseIpv4(ip);
+        if (ipv4 >= 0) {
+            return index.findIpv4((int) ipv4);
+        }
+        if (ip == null || ip.indexOf(':') < 0 || !isLiteral(ip)) {
+            return null;
+        }
+
+        try {
+            val address = ByteBuffer.wrap(InetAddress.getByName(ip).getAddress());
+            // IPv4-mapped addresses come back as IPv4
+            return address.capacity() == 4
+                    ? index.findIpv4(address.getInt(0))
+                    : index.findIpv6(address.getLong(0), address.getLong(8));
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reloads the dataset if the file changed since it was last loaded. A
+     * file that fails to load leaves the current ranges in place.
+     */
+    @Scheduled(fixedDelayString = "${geo.offline.reload-interval:PT1M}",
+            initialDelayString = "${geo.offline.reload-interval:PT1M}")
+    public void reloadIfModified() {
+        try {
+            if (!Files.getLastModifiedTime(path).equals(loadedModifiedTime)) {
+                reload();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to reload geolocation data from {}", path, e);
+        }
+    }
+
+    public void reload() throws IOException {
+        reloadLock.lock();
+        try {
+            val modifiedTime = Files.getLastModifiedTime(path);
+            val start = System.nanoTime();
+            val loaded = Index.load(path);
+
+            this.index = loaded;
+            this.loadedModifiedTime = modifiedTime;
+            log.info("Loaded {} IPv4 and {} IPv6 ranges with {} locations from {} in {} ms",
+                    loaded.ipv4Starts().length, loaded.ipv6Count(), loaded.locations().length, path,
+                    (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * @return the address as an unsigned int, or -1 if the value is not a
+     *         dotted IPv4 address
+     */
+    private static long parseIpv4(String ip) {
+        if (ip == null) {
+            return -1;
+        }
+
+        var address = 0L;
+        var octet = 0;
+        var digits = 0;
+        var dots = 0;
+        for (int i = 0; i < ip.length(); i++) {
+            val c = ip.charAt(i);
+            if (c >= '0' && c <= '9') {
+                octet = octet * 10 + (c - '0');
+                if (++digits > 3 || octet > 255) {
+                    return -1;
+                }
+            } else if (c == '.' && digits > 0 && ++dots <= 3) {
+                address = (address << 8) | octet;
+                octet = 0;
+                digits = 0;
+            } else {
+                return -1;
+            }
+        }
+        return dots == 3 && digits > 0 ? (address << 8) | octet : -1;
+    }
+
+    /**
+     * Only literals are parsed, so a host name is never resolved through DNS.
+     */
+    private static boolean isLiteral(String ip) {
+        if (ip.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < ip.length(); i++) {
+            val c = ip.charAt(i);
+            if (Character.digit(c, 16) < 0 && c != '.' && c != ':') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The loaded ranges. IPv6 records hold the start, the end and the
+     * location index: two longs each for the addresses and an int, padded to
+     * {@link #IPV6_RECORD_BYTES}.
+     */
+    private record Index(
+            int[] ipv4Starts,
+            int[] ipv4Ends,
+            int[] ipv4Locations,
+            ByteBuffer ipv6Ranges,
+            int ipv6Count,
+            GeolocationResponse[] locations) {
+
+        int size() {
+            return ipv4Starts.length + ipv6Count;
+        }
+
+        GeolocationResponse findIpv4(int ip) {
+            // Last range starting at or before the address
+            var low = 0;
+            var high = ipv4Starts.length - 1;
+            while (low <= high) {
+                val mid = (low + high) >>> 1;
+                if (Integer.compareUnsigned(ipv4Starts[mid], ip) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return high >= 0 && Integer.compareUnsigned(ip, ipv4Ends[high]) <= 0
+                    ? locations[ipv4Locations[high]]
+                    : null;
+        }
+
+        GeolocationResponse findIpv6(long ipHigh, long ipLow) {
+            var low = 0;
+            var high = ipv6Count - 1;
+            while (low <= high) {
+                val mid = (low + high) >>> 1;
+                val offset = mid * IPV6_RECORD_BYTES;
+                if (compare(ipv6Ranges.getLong(offset), ipv6Ranges.getLong(offset + 8), ipHigh, ipLow) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            if (high < 0) {
+                return null;
+            }
+
+            val offset = high * IPV6_RECORD_BYTES;
+            return compare(ipHigh, ipLow, ipv6Ranges.getLong(offset + 16), ipv6Ranges.getLong(offset + 24)) <= 0
+                    ? locations[ipv6Ranges.getInt(offset + 32)]
+                    : null;
+        }
+
+        static Index load(Path path) throws IOException {
+            val locations = new ArrayList<GeolocationResponse>();
+            val locationIndexes = new HashMap<List<String>, Integer>();
+            var ipv4Starts = new int[1024];
+            var ipv4Ends = new int[1024];
+            var ipv4Locations = new int[1024];
+            var ipv4Count = 0;
+            var ipv6Count = 0;
+            var previousIpv4End = -1L;
+            byte[] previousIpv6End = null;
+
+            val ipv6File = Files.createTempFile("geolocation-ipv6", ".idx");
+            try {
+                try (val reader = Files.newBufferedReader(path, StandardCharsets.UTF_8);
+                        val ipv6Out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(ipv6File)))) {
+
+                    String line;
+                    var lineNumber = 0;
+                    while ((line = reader.readLine()) != null) {
+                        lineNumber++;
+                        if (line.isBlank()) {
+                            continue;
+                        }
+
+                        val fields = splitCsv(line);
+                        if (lineNumber == 1 && !isLiteral(fields.get(0))) {
+                            continue;
+                        }
+                        if (fields.size() < 6) {
+                            throw new IOException(path + ":" + lineNumber + ": expected at least 6 columns");
+                        }
+
+                        val start = parseAddress(path, lineNumber, fields.get(0));
+                        val end = parseAddress(path, lineNumber, fields.get(1));
+                        if (start.length != end.length || Arrays.compareUnsigned(start, end) > 0) {
+                            throw new IOException(path + ":" + lineNumber + ": invalid range");
+                        }
+
+                        val key = fields.subList(2, fields.size());
+                        var location = locationIndexes.get(key);
+                        if (location == null) {
+                            location = locations.size();
+                            locations.add(toResponse(fields));
+                            locationIndexes.put(key, location);
+                        }
+
+                        if (start.length == 4) {
+                            val startValue = ByteBuffer.wrap(start).getInt() & 0xFFFFFFFFL;
+                            if (startValue <= previousIpv4End) {
+                                throw new IOException(path + ":" + lineNumber + ": ranges must be sorted and not overlap");
+                            }
+                            if (ipv4Count == ipv4Starts.length) {
+                                ipv4Starts = Arrays.copyOf(ipv4Starts, ipv4Count * 2);
+                                ipv4Ends = Arrays.copyOf(ipv4Ends, ipv4Count * 2);
+                                ipv4Locations = Arrays.copyOf(ipv4Locations, ipv4Count * 2);
+                            }
+                            ipv4Starts[ipv4Count] = (int) startValue;
+                            ipv4Ends[ipv4Count] = ByteBuffer.wrap(end).getInt();
+                            ipv4Locations[ipv4Count] = location;
+                            ipv4Count++;
+                            previousIpv4End = ipv4Ends[ipv4Count - 1] & 0xFFFFFFFFL;
+                        } else {
+                            if (previousIpv6End != null && Arrays.compareUnsigned(start, previousIpv6End) <= 0) {
+                                throw new IOException(path + ":" + lineNumber + ": ranges must be sorted and not overlap");
+                            }
+                            ipv6Out.write(start);
+                            ipv6Out.write(end);
+                            ipv6Out.writeInt(location);
+                            ipv6Out.writeInt(0);
+                            ipv6Count++;
+                            previousIpv6End = end;
+                        }
+                    }
+                }
+
+                ByteBuffer ipv6Ranges;
+                try (val channel = FileChannel.open(ipv6File, StandardOpenOption.READ)) {
+                    ipv6Ranges = channel.size() > 0
+                            ? channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                            : ByteBuffer.allocate(0);
+                }
+
+                return new Index(
+                        Arrays.copyOf(ipv4Starts, ipv4Count),
+                        Arrays.copyOf(ipv4Ends, ipv4Count),
+                        Arrays.copyOf(ipv4Locations, ipv4Count),
+                        ipv6Ranges,
+                        ipv6Count,
+                        locations.toArray(GeolocationResponse[]::new));
+            } finally {
+                // The mapping outlives the file where the platform allows it
+                try {
+                    Files.deleteIfExists(ipv6File);
+                } catch (IOException e) {
+                    ipv6File.toFile().deleteOnExit();
+                }
+            }
+        }
+
+        private static byte[] parseAddress(Path path, int lineNumber, String value) throws IOException {
+            if (!isLiteral(value)) {
+                throw new IOException(path + ":" + lineNumber + ": invalid address " + value);
+            }
+            return InetAddress.getByName(value).getAddress();
+        }
+
+        private static int compare(long high, long low, long otherHigh, long otherLow) {
+            val result = Long.compareUnsigned(high, otherHigh);
+            return result != 0 ? result : Long.compareUnsigned(low, otherLow);
+        }
+
+        private static GeolocationResponse toResponse(List<String> fields) {
+            val continent = new GeolocationResponse.Continent();
+            continent.setCode(fields.get(2));
+
+            val country = new GeolocationResponse.Country();
+            country.setIsoCode(fields.get(3));
+            country.setNames(Map.of("en", new Locale("", fields.get(3)).getDisplayCountry(Locale.ENGLISH)));
+
+            val subdivision = new GeolocationResponse.Subdivision();
+            subdivision.setNames(Map.of("en", fields.get(4)));
+
+            val city = new GeolocationResponse.City();
+            city.setNames(Map.of("en", fields.get(5)));
+
+            val response = new GeolocationResponse();
+            response.setContinent(continent);
+            response.setCountry(country);
+            response.setSubdivisions(List.of(subdivision));
+            response.setCity(city);
+
+            if (fields.size() >= 8) {
+                val location = new GeolocationResponse.Location();
+                location.setLatitude(Double.parseDouble(fields.get(6)));
+                location.setLongitude(Double.parseDouble(fields.get(7)));
+                response.setLocation(location);
+            }
+            return response;
+        }
+
+        /**
+         * Splits a CSV line, honouring double quoted fields.
+         */
+        private static List<String> splitCsv(String line) {
+            val fields = new ArrayList<String>();
+            val field = new StringBuilder();
+            var quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                val c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+
+    }
+
+}
@@ -0,0 +1,209 @@
+package com.webapp.bankingportal.service.impl;
+
+import com.webapp.bankingportal.dto.AccountResponse;
+import com.webapp.bankingportal.entity.Account;
+import com.webapp.bankingportal.entity.User;
+import com.webapp.bankingportal.exception.ServiceUnavailableException;
+import com.webapp.bankingportal.service.AccountService;
+import com.webapp.bankingportal.util.ApiMessages;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.val;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Routes every mutation of an account to a single-threaded shard chosen by
+ * account number, so an account is only ever written by one thread and no
+ * row locks are needed to serialize its balance changes.
+ *
+ * A transfer between accounts on different shards runs on the lower shard
+ * after parking the higher one. Shards only ever wait on higher shards, so
+ * the hand-off cannot form a cycle.
+ *
+ * The shards are per process. Enable with account.execution.mode=sharded on
+ * deployments where a single instance handles all money movements.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "account.execution.mode", havingValue = "sharded")
+public class ShardedAccountService implements AccountService {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardedAccountService.class);
+
+    private final AccountServiceImpl accountService;
+    private final ThreadPoolExecutor[] shards;
+
+    public ShardedAccountService(
+            AccountServiceImpl accountService,
+            @Value("${account.execution.shards:8}") int shardCount,
+            @Value("${account.execution.queue-capacity:1000}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+
+        if (shardCount < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("account.execution.shards and queue-capacity must be positive");
+        }
+
+        this.accountService = accountService;
+        this.shards = new ThreadPoolExecutor[shardCount];
+
+        for (int i = 0; i < shardCount; i++) {
+            val name = "account-shard-" + i;
+            shards[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    runnable -> new Thread(runnable, name));
+
+            Gauge.builder("account.shard.queue", shards[i], shard -> shard.getQueue().size())
+                    .tag("shard", String.valueOf(i))
+                    .description("Operations waiting for the shard")
+                    .register(meterRegistry);
+        }
+
+        log.info("Account operations run on {} shards", shardCount);
+    }
+
+    public int shardIndex(String accountNumber) {
+        return Math.floorMod(accountNumber.hashCode(), shards.length);
+    }
+
+    @Override
+    public Account createAccount(User user) {
+        return accountService.createAccount(user);
+    }
+
+    @Override
+    public boolean isPinCreated(String accountNumber) {
+        return accountService.isPinCreated(accountNumber);
+    }
+
+    @Override
+    public void createPin(String accountNumber, String pin) {
+        execute(shardIndex(accountNumber), () -> {
+            accountService.createPin(accountNumber, pin);
+            return null;
+        });
+    }
+
+    @Override
+    public void updatePin(String accountNumber, String oldPin, String newPin) {
+        execute(shardIndex(accountNumber), () -> {
+            accountService.updatePin(accountNumber, oldPin, newPin);
+            return null;
+        });
+    }
+
+    @Override
+    public AccountResponse cashDeposit(String accountNumber, String pin, BigDecimal amount) {
+        return execute(shardIndex(accountNumber),
+                () -> accountService.cashDeposit(accountNumber, pin, amount));
+    }
+
+    @Override
+    public AccountResponse cashWithdrawal(String accountNumber, String pin, BigDecimal amount) {
+        return execute(shardIndex(accountNumber),
+                () -> accountService.cashWithdrawal(accountNumber, pin, amount));
+    }
+
+    @Override
+    public AccountResponse fundTransfer(String sourceAccountNumber, String targetAccountNumber,
+            BigDecimal amount, String pin) {
+
+        Callable<AccountResponse> transfer = () -> accountService.fundTransferWithoutLocking(
+                sourceAccountNumber, targetAccountNumber, amount, pin);
+
+        val sourceShard = shardIndex(sourceAccountNumber);
+        val targetShard = shardIndex(targetAccountNumber);
+        if (sourceShard == targetShard) {
+            return execute(sourceShard, transfer);
+        }
+
+        val lowerShard = Math.min(sourceShard, targetShard);
+        val higherShard = Math.max(sourceShard, targetShard);
+        return execute(lowerShard, () -> runWhileParked(higherShard, transfer));
+    }
+
+    @Override
+    public void deleteAccount(String accountNumber) {
+        execute(shardIndex(accountNumber), () -> {
+            accountService.deleteAccount(accountNumber);
+            return null;
+        });
+    }
+
+    @Override
+    public AccountResponse getAccountInfo(String accountNumber) {
+        return accountService.getAccountInfo(accountNumber);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (val shard : shards) {
+            shard.shutdown();
+        }
+    }
+
+    /**
+     * Parks the given shard, runs the task on the calling shard thread and
+     * then releases the parked shard again.
+     */
+    private <T> T runWhileParked(int shard, Callable<T> task) throws Exception {
+        val parked = new CountDownLatch(1);
+        val release = new CountDownLatch(1);
+
+        submit(shard, () -> {
+            parked.countDown();
+            release.await();
+            return null;
+        });
+
+        try {
+            parked.await();
+            return task.call();
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private <T> T execute(int shard, Callable<T> task) {
+        val future = submit(shard, task);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new RuntimeException("Interrupted while waiting for account operation", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private <T> Future<T> submit(int shard, Callable<T> task) {
+        try {
+            return shards[shard].submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new ServiceUnavailableException(ApiMessages.ACCOUNT_SHARD_BUSY_ERROR.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,190 @@
+package com.webapp.bankingportal.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import lombok.val;
+
+/**
+ * Striped in-process locks keyed by account number.
+ *
+ * Locks for several accounts are always taken in ascending stripe order, so
+ * two transfers between the same accounts in opposite directions can never
+ * wait on each other.
+ */
+@Component
+public class AccountLockManager {
+
+    private final Stripe[] stripes;
+    private final int mask;
+
+    public AccountLockManager(
+            @Value("${account.lock.stripes:64}") int stripeCount,
+            MeterRegistry meterRegistry) {
+
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("account.lock.stripes must be positive");
+        }
+
+        val size = Integer.highestOneBit(stripeCount - 1) << 1;
+        this.stripes = new Stripe[Math.max(size, 1)];
+        this.mask = stripes.length - 1;
+
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe(i);
+            registerMetrics(stripes[i], meterRegistry);
+        }
+    }
+
+    /**
+     * Acquires the stripes of all given accounts in canonical order. The caller
+     * must close the returned handle.
+     */
+    public Locks lock(String... accountNumbers) {
+        val indexes = Arrays.stream(accountNumbers)
+                .mapToInt(this::stripeIndex)
+                .distinct()
+                .sorted()
+                .toArray();
+
+        val acquired = new ArrayList<Stripe>(indexes.length);
+        try {
+            for (val index : indexes) {
+                stripes[index].acquire();
+                acquired.add(stripes[index]);
+            }
+        } catch (RuntimeException e) {
+            new Locks(acquired).close();
+            throw e;
+        }
+
+        return new Locks(acquired);
+    }
+
+    /**
+     * Acquires the stripes of all given accounts and keeps them until the
+     * current transaction has committed or rolled back, so no other thread can
+     * touch the rows before the changes are visible.
+     *
+     * @throws IllegalStateException If no transaction is active.
+     */
+    public void lockUntilCompletion(String... accountNumbers) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Account locks must be taken inside a transaction");
+        }
+
+        val locks = lock(accountNumbers);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                locks.close();
+            }
+        });
+    }
+
+    public int stripeIndex(String accountNumber) {
+        val hash = accountNumber.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    public List<StripeStats> getStripeStats() {
+        val stats = new ArrayList<StripeStats>(stripes.length);
+        for (val stripe : stripes) {
+            stats.add(new StripeStats(stripe.index,
+                    stripe.acquisitions.sum(),
+                    stripe.contentions.sum(),
+                    stripe.waitNanos.sum()));
+        }
+        return stats;
+    }
+
+    private static void registerMetrics(Stripe stripe, MeterRegistry meterRegistry) {
+        val tag = String.valueOf(stripe.index);
+
+        FunctionCounter.builder("account.lock.acquisitions", stripe, s -> s.acquisitions.sum())
+                .tag("stripe", tag)
+                .description("Number of times the stripe was acquired")
+                .register(meterRegistry);
+
+        FunctionCounter.builder("account.lock.contentions", stripe, s -> s.contentions.sum())
+                .tag("stripe", tag)
+                .description("Number of acquisitions that had to wait for another thread")
+                .register(meterRegistry);
+
+        FunctionCounter.builder("account.lock.wait", stripe, s -> s.waitNanos.sum() / 1e9)
+                .tag("stripe", tag)
+                .baseUnit("seconds")
+                .description("Total time spent waiting for the stripe")
+                .register(meterRegistry);
+
+        Gauge.builder("account.lock.queue", stripe, s -> s.lock.getQueueLength())
+                .tag("stripe", tag)
+                .description("Threads currently waiting for the stripe")
+                .register(meterRegistry);
+    }
+
+    public record StripeStats(int stripe, long acquisitions, long contentions, long waitNanos) {
+    }
+
+    /**
+     * Handle for a set of acquired stripes. Closing it releases them in reverse
+     * order; closing it more than once has no effect.
+     */
+    public static final class Locks implements AutoCloseable {
+
+        private final List<Stripe> acquired;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Locks(List<Stripe> acquired) {
+            this.acquired = acquired;
+        }
+
+        @Override
+        public void close() {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+
+            for (int i = acquired.size() - 1; i >= 0; i--) {
+                acquired.get(i).lock.unlock();
+            }
+        }
+    }
+
+    private static final class Stripe {
+
+        private final int index;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LongAdder acquisitions = new LongAdder();
+        private final LongAdder contentions = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+
+        private Stripe(int index) {
+            this.index = index;
+        }
+
+        private void acquire() {
+            if (!lock.tryLock()) {
+                contentions.increment();
+                val start = System.nanoTime();
+                lock.lock();
+                waitNanos.add(System.nanoTime() - start);
+            }
+            acquisitions.increment();
+        }
+    }
+
+}
@@ -6,10 +6,12 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public enum ApiMessages {
     ACCOUNT_NOT_FOUND("Account does not exist"),
+    ACCOUNT_SHARD_BUSY_ERROR("Too many pending operations for this account. Please try again later"),
     AMOUNT_EXCEED_100_000_ERROR("Amount cannot be greater than 100,000"),
     AMOUNT_INVALID_ERROR("Invalid amount"),
     AMOUNT_NEGATIVE_ERROR("Amount must be greater than 0"),
     AMOUNT_NOT_MULTIPLE_OF_100_ERROR("Amount must be in multiples of 100"),
+    BALANCE_HISTORY_NOT_FOUND_ERROR("Balance history is only available from %s"),
     BALANCE_INSUFFICIENT_ERROR("Insufficient balance"),
     CASH_DEPOSIT_SUCCESS("{\"msg\": \"Cash deposited successfully\"}"),
     CASH_TRANSFER_SAME_ACCOUNT_ERROR("Source and target account cannot be the same"),
@@ -18,14 +20,17 @@ public enum ApiMessages {
     EMAIL_SUBJECT_LOGIN("New login to Secure Bank"),
     EMAIL_SUBJECT_OTP("OTP Verification"),
     GEOLOCATION_FAILED("Failed to get geolocation for IP: %s"),
+    IDEMPOTENCY_KEY_INVALID_ERROR("Idempotency-Key must be between 1 and 255 characters"),
+    IDEMPOTENCY_KEY_IN_PROGRESS_ERROR("A request with this Idempotency-Key is already being processed"),
+    IDEMPOTENCY_KEY_REUSED_ERROR("Idempotency-Key was already used for a different request"),
     IDENTIFIER_MISSING_ERROR("Missing identifier"),
     OTP_GENERATION_LIMIT_EXCEEDED("OTP generation limit exceeded. Please try again after %d minutes"),
     OTP_INVALID_ERROR("Invalid OTP"),
     OTP_MISSING_ERROR("Missing OTP"),
-    OTP_SENT_FAILURE("{\"message\": \"Failed to send OTP to: %s\"}"),
     OTP_SENT_SUCCESS("{\"message\": \"OTP sent successfully to: %s\"}"),
     PASSWORD_CONTAINS_WHITESPACE_ERROR("Password cannot contain any whitespace characters"),
     PASSWORD_EMPTY_ERROR("Password cannot be empty"),
+    PASSWORD_HASHING_BUSY_ERROR("Too many sign-in attempts in progress. Please try again later"),
     PASSWORD_INVALID_ERROR("Invalid password"),
     PASSWORD_REQUIREMENTS_ERROR("Password must contain at least %s"),
     PASSWORD_RESET_FAILURE("Failed to reset password"),
@@ -41,6 +46,7 @@ public enum ApiMessages {
     PIN_INVALID_ERROR("Invalid PIN"),
     PIN_NOT_CREATED("PIN has not been created for this account"),
     PIN_UPDATE_SUCCESS("{\"hasPIN\": false, \"msg\": \"PIN updated successfully\"}"),
+    SERVER_BUSY_ERROR("The server is busy. Please try again later"),
     TOKEN_ALREADY_EXISTS_ERROR("Token already exists"),
     TOKEN_EMPTY_ERROR("Token is empty"),
     TOKEN_EXPIRED_ERROR("Token has expired"),
@@ -48,8 +54,11 @@ public enum ApiMessages {
     TOKEN_ISSUED_SUCCESS("{ \"token\": \"%s\" }"),
     TOKEN_MALFORMED_ERROR("Token is malformed"),
     TOKEN_NOT_FOUND_ERROR("Token not found"),
+    TOKEN_REVOKED_ERROR("Token has been revoked"),
     TOKEN_SIGNATURE_INVALID_ERROR("Token signature is invalid"),
     TOKEN_UNSUPPORTED_ERROR("Token is not supported"),
+    TRANSACTION_CURSOR_INVALID_ERROR("Invalid cursor"),
+    TRANSACTION_LIMIT_INVALID_ERROR("Limit must be greater than 0"),
     USER_ADDRESS_EMPTY_ERROR("Address cannot be empty"),
     USER_COUNTRY_CODE_EMPTY_ERROR("Country code cannot be empty"),
     USER_COUNTRY_CODE_INVALID_ERROR("Invalid country code: %s"),
@@ -0,0 +1,49 @@
+package com.webapp.bankingportal.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+import lombok.val;
+
+public interface CacheUtil {
+
+    /**
+     * Returns the cached value for the key, loading it on the calling thread
+     * if absent. Unlike Cache.get with a mapping function, the load does not
+     * run inside the map's compute, which holds a monitor that would pin a
+     * virtual thread for the whole load. Concurrent callers for the same key
+     * still wait for one load, and an invalidation during the load keeps its
+     * result out of the cache.
+     *
+     * @param cache  the cache
+     * @param key    the key to look up
+     * @param loader loads the value of an absent key; null caches nothing
+     * @return the value, or null if the loader returned null
+     */
+    public static <K, V> V getOrLoad(AsyncCache<K, V> cache, K key, Function<? super K, ? extends V> loader) {
+        val loading = new CompletableFuture<V>();
+        val future = cache.get(key, (k, executor) -> loading);
+
+        if (future == loading) {
+            try {
+                loading.complete(loader.apply(key));
+            } catch (RuntimeException e) {
+                loading.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+}
@@ -0,0 +1,165 @@
+package com.webapp.bankingportal.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.StreamUtils;
+
+import lombok.val;
+
+/**
+ * Email template split once into its static segments and the slots
+ * between them, written as {{name}}. Slots are bound to the parameters
+ * declared when the template is loaded, so a misspelt slot fails at startup
+ * instead of showing up in a sent email. Values rendered into .html
+ * templates are HTML-escaped. Rendering sizes the output first and fills a
+ * buffer of exactly that length.
+ */
+public final class EmailTemplate {
+
+    private static final Pattern SLOT = Pattern.compile("\\{\\{(\\w+)}}");
+
+    private final String name;
+    private final String[] segments;
+    private final int[] slots;
+    private final int parameterCount;
+    private final int staticLength;
+    private final boolean escapeHtml;
+
+    private EmailTemplate(String name, String[] segments, int[] slots, int parameterCount, boolean escapeHtml) {
+        this.name = name;
+        this.segments = segments;
+        this.slots = slots;
+        this.parameterCount = parameterCount;
+        this.escapeHtml = escapeHtml;
+        this.staticLength = Arrays.stream(segments).mapToInt(String::length).sum();
+    }
+
+    /**
+     * Loads a template from the classpath. Values are HTML-escaped if its
+     * name ends with .html.
+     *
+     * @param parameters Slot names, in the order values are passed to
+     *                   {@link #render}.
+     */
+    public static EmailTemplate load(String resource, String... parameters) {
+        try (val input = new ClassPathResource(resource).getInputStream()) {
+            return compile(resource, StreamUtils.copyToString(input, StandardCharsets.UTF_8),
+                    resource.endsWith(".html"), parameters);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load email template " + resource, e);
+        }
+    }
+
+    public static EmailTemplate compile(String name, String source, boolean escapeHtml, String... parameters) {
+        val parameterList = Arrays.asList(parameters);
+        val used = new boolean[parameters.length];
+        val segments = new ArrayList<String>();
+        val slots = new ArrayList<Integer>();
+
+        val matcher = SLOT.matcher(source);
+        var start = 0;
+        while (matcher.find()) {
+            val parameter = parameterList.indexOf(matcher.group(1));
+            if (parameter < 0) {
+                throw new IllegalArgumentException(
+                        String.format("Email template %s has undeclared slot %s", name, matcher.group()));
+            }
+
+            segments.add(source.substring(start, matcher.start()));
+            slots.add(parameter);
+            used[parameter] = true;
+            start = matcher.end();
+        }
+        segments.add(source.substring(start));
+
+        for (int i = 0; i < parameters.length; i++) {
+            if (!used[i]) {
+                throw new IllegalArgumentException(
+                        String.format("Email template %s has no slot for %s", name, parameters[i]));
+            }
+        }
+
+        return new EmailTemplate(name, segments.toArray(String[]::new),
+                slots.stream().mapToInt(Integer::intValue).toArray(), parameters.length, escapeHtml);
+    }
+
+    /**
+     * @param values One per declared parameter, in declaration order. Null
+     *               renders as an empty string.
+     */
+    public String render(String... values) {
+        if (values.length != parameterCount) {
+            throw new IllegalArgumentException(String.format("Email template %s takes %d values, got %d",
+                    name, parameterCount, values.length));
+        }
+
+        var length = staticLength;
+        for (val slot : slots) {
+            length += renderedLength(values[slot]);
+        }
+
+        val buffer = new StringBuilder(length);
+        buffer.append(segments[0]);
+        for (int i = 0; i < slots.length; i++) {
+            write(values[slots[i]], buffer);
+            buffer.append(segments[i + 1]);
+        }
+        return buffer.toString();
+    }
+
+    private int renderedLength(String value) {
+        if (value == null) {
+            return 0;
+        }
+        if (!escapeHtml) {
+            return value.length();
+        }
+
+        var length = value.length();
+        for (int i = 0; i < value.length(); i++) {
+            val escape = escape(value.charAt(i));
+            if (escape != null) {
+                length += escape.length() - 1;
+            }
+        }
+        return length;
+    }
+
+    private void write(String value, StringBuilder buffer) {
+        if (value == null) {
+            return;
+        }
+        if (!escapeHtml) {
+            buffer.append(value);
+            return;
+        }
+
+        var start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            val escape = escape(value.charAt(i));
+            if (escape != null) {
+                buffer.append(value, start, i).append(escape);
+                start = i + 1;
+            }
+        }
+        buffer.append(value, start, value.length());
+    }
+
+    private static String escape(char c) {
+        return switch (c) {
+            case '&' -> "&amp;";
+            case '<' -> "&lt;";
+            case '>' -> "&gt;";
+            case '"' -> "&quot;";
+            case '\'' -> "&#39;";
+            default -> null;
+        };
+    }
+
+}
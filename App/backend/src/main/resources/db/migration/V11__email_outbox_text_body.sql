@@ -0,0 +1,2 @@
+-- Keep the plain-text alternate of queued emails
+ALTER TABLE email_outbox ADD COLUMN text_body TEXT;
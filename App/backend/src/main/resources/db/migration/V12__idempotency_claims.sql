@@ -0,0 +1,2 @@
+-- Keys are claimed before the request runs and completed with its response
+ALTER TABLE idempotency_keys ADD COLUMN status VARCHAR(16) NOT NULL DEFAULT 'COMPLETED';
@@ -0,0 +1,13 @@
+-- Create idempotency keys table
+CREATE TABLE idempotency_keys (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    account_number VARCHAR(255) NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    response_status INT NOT NULL,
+    response_body TEXT,
+    created_at DATETIME(6) NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    UNIQUE KEY uk_idempotency_keys_account_key (account_number, idempotency_key),
+    INDEX idx_idempotency_keys_expires_at (expires_at)
+);
@@ -0,0 +1,26 @@
+-- Create ledger entries table
+CREATE TABLE ledger_entries (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    transaction_id BIGINT,
+    account_number VARCHAR(20) NOT NULL,
+    entry_type VARCHAR(10) NOT NULL,
+    amount DECIMAL(19,2) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    INDEX idx_ledger_entries_account (account_number, id),
+    INDEX idx_ledger_entries_transaction (transaction_id)
+);
+
+-- Create balance snapshots table
+CREATE TABLE account_balance_snapshots (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    account_number VARCHAR(20) NOT NULL,
+    balance DECIMAL(19,2) NOT NULL,
+    last_entry_id BIGINT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    INDEX idx_balance_snapshots_account (account_number, id)
+);
+
+-- Open the ledger with the balances accounts had before it existed
+INSERT INTO account_balance_snapshots (account_number, balance, last_entry_id, created_at)
+SELECT account_number, balance, 0, CURRENT_TIMESTAMP(6)
+FROM accounts;
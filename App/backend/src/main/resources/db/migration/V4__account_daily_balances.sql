@@ -0,0 +1,15 @@
+-- Create daily closing balances table
+CREATE TABLE account_daily_balances (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    account_number VARCHAR(20) NOT NULL,
+    balance_date DATE NOT NULL,
+    closing_balance DECIMAL(19,2) NOT NULL,
+    UNIQUE KEY uk_account_daily_balances_account_date (account_number, balance_date)
+);
+
+CREATE INDEX idx_ledger_entries_account_created ON ledger_entries (account_number, created_at);
+
+-- Carry the balances accounts already hold as yesterday's closing balance
+INSERT INTO account_daily_balances (account_number, balance_date, closing_balance)
+SELECT account_number, CURRENT_DATE - INTERVAL 1 DAY, balance
+FROM accounts;
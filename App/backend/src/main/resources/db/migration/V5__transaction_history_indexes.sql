@@ -0,0 +1,3 @@
+-- Support keyset pagination of an account's transaction history
+CREATE INDEX idx_transactions_source_date ON transactions (source_account_id, transaction_date, id);
+CREATE INDEX idx_transactions_target_date ON transactions (target_account_id, transaction_date, id);
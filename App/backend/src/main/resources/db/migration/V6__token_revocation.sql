@@ -0,0 +1,12 @@
+-- Tokens issued before the current epoch of their account are revoked
+ALTER TABLE accounts ADD COLUMN token_epoch INT NOT NULL DEFAULT 0;
+
+-- Create revoked tokens table
+CREATE TABLE revoked_tokens (
+    token_id VARCHAR(36) PRIMARY KEY,
+    account_number VARCHAR(255) NOT NULL,
+    revoked_at DATETIME(6) NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    INDEX idx_revoked_tokens_expires_at (expires_at),
+    INDEX idx_revoked_tokens_revoked_at (revoked_at)
+);
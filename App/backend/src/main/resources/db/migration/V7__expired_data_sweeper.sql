@@ -0,0 +1,11 @@
+-- Let the sweeper find expired rows without scanning whole tables
+CREATE INDEX idx_token_expiry_at ON token (expiry_at);
+CREATE INDEX idx_otp_info_generated_at ON otp_info (generated_at);
+CREATE INDEX idx_passwordresettoken_expiry_date_time ON passwordresettoken (expiry_date_time);
+
+-- Create scheduler leases table
+CREATE TABLE scheduler_leases (
+    name VARCHAR(64) PRIMARY KEY,
+    owner VARCHAR(255),
+    locked_until DATETIME(6) NOT NULL
+);
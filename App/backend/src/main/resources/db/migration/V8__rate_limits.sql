@@ -0,0 +1,7 @@
+-- Create rate limits table, used when rate-limit.store=database
+CREATE TABLE rate_limits (
+    limit_key VARCHAR(128) PRIMARY KEY,
+    hits INT NOT NULL,
+    window_end DATETIME(6) NOT NULL,
+    INDEX idx_rate_limits_window_end (window_end)
+);
@@ -0,0 +1,5 @@
+-- Give each OTP its own expiry and let the sweeper find expired rows by it
+ALTER TABLE otp_info ADD COLUMN expires_at DATETIME(6);
+UPDATE otp_info SET expires_at = generated_at + INTERVAL 5 MINUTE;
+DROP INDEX idx_otp_info_generated_at ON otp_info;
+CREATE INDEX idx_otp_info_expires_at ON otp_info (expires_at);
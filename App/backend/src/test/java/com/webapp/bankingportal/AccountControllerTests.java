@@ -1,12 +1,16 @@
 package com.webapp.bankingportal;
 
 import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.webapp.bankingportal.controller.AccountController;
 import com.webapp.bankingportal.dto.AmountRequest;
 import com.webapp.bankingportal.dto.FundTransferRequest;
 import com.webapp.bankingportal.dto.PinRequest;
@@ -670,4 +674,93 @@ public class AccountControllerTests extends BaseTest {
                 .andExpect(MockMvcResultMatchers.status().isUnauthorized());
     }
 
+    @Test
+    public void test_balance_as_of_now() throws Exception {
+        val userDetails = createAndLoginUser();
+        accountService.cashDeposit(userDetails.get("accountNumber"), "0000", new BigDecimal("100.00"));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                .get("/api/account/balance")
+                .header("Authorization", "Bearer " + userDetails.get("token")))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.accountNumber").value(userDetails.get("accountNumber")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.balance").value(100.0));
+    }
+
+    @Test
+    public void test_balance_as_of_before_first_deposit() throws Exception {
+        val userDetails = createAndLoginUser();
+        accountService.cashDeposit(userDetails.get("accountNumber"), "0000", new BigDecimal("100.00"));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                .get("/api/account/balance")
+                .param("asOf", "2020-01-01T00:00:00")
+                .header("Authorization", "Bearer " + userDetails.get("token")))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.balance").value(0));
+    }
+
+    @Test
+    public void test_transactions_page_with_next_cursor() throws Exception {
+        val userDetails = createAndLoginUser();
+        for (int i = 0; i < 3; i++) {
+            accountService.cashDeposit(userDetails.get("accountNumber"), "0000", new BigDecimal("100.00"));
+        }
+
+        mockMvc.perform(MockMvcRequestBuilders
+                .get("/api/account/transactions")
+                .param("limit", "2")
+                .header("Authorization", "Bearer " + userDetails.get("token")))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(2))
+                .andExpect(MockMvcResultMatchers.header().exists(AccountController.NEXT_CURSOR_HEADER));
+    }
+
+    // The export is written on another thread, which only sees committed data
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void test_transactions_export_as_json_array() throws Exception {
+        val userDetails = createAndLoginUser();
+        for (int i = 0; i < 3; i++) {
+            accountService.cashDeposit(userDetails.get("accountNumber"), "0000", new BigDecimal("100.00"));
+        }
+
+        val result = mockMvc.perform(MockMvcRequestBuilders
+                .get("/api/account/transactions/export")
+                .header("Authorization", "Bearer " + userDetails.get("token")))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].transactionType").value("CASH_DEPOSIT"));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void test_transactions_export_as_ndjson() throws Exception {
+        val userDetails = createAndLoginUser();
+        accountService.cashDeposit(userDetails.get("accountNumber"), "0000", new BigDecimal("100.00"));
+        accountService.cashWithdrawal(userDetails.get("accountNumber"), "0000", new BigDecimal("10.00"));
+
+        val result = mockMvc.perform(MockMvcRequestBuilders
+                .get("/api/account/transactions/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .header("Authorization", "Bearer " + userDetails.get("token")))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        val content = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        val lines = content.split("\n");
+        Assertions.assertEquals(2, lines.length);
+        Assertions.assertTrue(lines[0].contains("\"transactionType\":\"CASH_WITHDRAWAL\""));
+        Assertions.assertTrue(lines[1].contains("\"transactionType\":\"CASH_DEPOSIT\""));
+    }
+
 }
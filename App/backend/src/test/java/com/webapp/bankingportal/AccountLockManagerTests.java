@@ -0,0 +1,102 @@
+package com.webapp.bankingportal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.webapp.bankingportal.util.AccountLockManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import lombok.val;
+
+public class AccountLockManagerTests {
+
+    private static final int THREADS = 16;
+    private static final int TRANSFERS_PER_THREAD = 2_000;
+
+    @Test
+    public void test_opposite_transfers_do_not_deadlock() throws Exception {
+        val lockManager = new AccountLockManager(64, new SimpleMeterRegistry());
+        val balances = new HashMap<String, Long>();
+        balances.put("100001", 1_000_000L);
+        balances.put("200002", 1_000_000L);
+
+        val executor = Executors.newFixedThreadPool(THREADS);
+        val startGate = new CountDownLatch(1);
+        val futures = new ArrayList<Future<?>>();
+
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                // Half of the threads move money A -> B, the other half B -> A
+                val source = i % 2 == 0 ? "100001" : "200002";
+                val target = i % 2 == 0 ? "200002" : "100001";
+
+                futures.add(executor.submit(() -> {
+                    startGate.await();
+                    for (int j = 0; j < TRANSFERS_PER_THREAD; j++) {
+                        try (val locks = lockManager.lock(source, target)) {
+                            balances.put(source, balances.get(source) - 1);
+                            Thread.yield();
+                            balances.put(target, balances.get(target) + 1);
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            startGate.countDown();
+            for (val future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assertions.assertEquals(2_000_000L, balances.get("100001") + balances.get("200002"));
+        Assertions.assertEquals(1_000_000L, balances.get("100001"));
+    }
+
+    @Test
+    public void test_stripe_stats_record_acquisitions_and_contention() throws Exception {
+        val lockManager = new AccountLockManager(8, new SimpleMeterRegistry());
+        val stripe = lockManager.stripeIndex("123456");
+
+        val holder = lockManager.lock("123456");
+        val waiter = new Thread(() -> lockManager.lock("123456").close());
+        waiter.start();
+
+        while (waiter.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+        holder.close();
+        waiter.join(5_000);
+
+        val stats = lockManager.getStripeStats().get(stripe);
+        Assertions.assertEquals(2, stats.acquisitions());
+        Assertions.assertEquals(1, stats.contentions());
+        Assertions.assertTrue(stats.waitNanos() > 0);
+    }
+
+    @Test
+    public void test_same_stripe_is_only_acquired_once() {
+        val lockManager = new AccountLockManager(1, new SimpleMeterRegistry());
+
+        try (val locks = lockManager.lock("100001", "200002", "100001")) {
+            Assertions.assertEquals(1, lockManager.getStripeStats().get(0).acquisitions());
+        }
+    }
+
+    @Test
+    public void test_stripe_count_is_rounded_up_to_power_of_two() {
+        val lockManager = new AccountLockManager(50, new SimpleMeterRegistry());
+        Assertions.assertEquals(64, lockManager.getStripeStats().size());
+    }
+
+}
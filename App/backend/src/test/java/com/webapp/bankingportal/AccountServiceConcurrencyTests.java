@@ -0,0 +1,135 @@
+package com.webapp.bankingportal;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.webapp.bankingportal.exception.InsufficientBalanceException;
+import com.webapp.bankingportal.repository.AccountRepository;
+
+import lombok.val;
+
+/**
+ * Runs money movements from several threads at once. These tests commit for
+ * real, since the worker threads cannot see the test's own transaction.
+ */
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class AccountServiceConcurrencyTests extends BaseTest {
+
+    protected static final int THREADS = 8;
+    protected static final int OPERATIONS_PER_THREAD = 25;
+    protected static final String DEFAULT_PIN = "0000";
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Test
+    public void test_concurrent_deposits_do_not_lose_updates() throws Exception {
+        val accountNumber = createAccount().get("accountNumber");
+        val amount = new BigDecimal("10.00");
+
+        runConcurrently(() -> accountService.cashDeposit(accountNumber, DEFAULT_PIN, amount));
+
+        val expected = amount.multiply(BigDecimal.valueOf(THREADS * OPERATIONS_PER_THREAD));
+        Assertions.assertEquals(0, expected.compareTo(getBalance(accountNumber)));
+    }
+
+    @Test
+    public void test_concurrent_withdrawals_never_overdraw() throws Exception {
+        val accountNumber = createAccount().get("accountNumber");
+        val amount = new BigDecimal("10.00");
+        accountService.cashDeposit(accountNumber, DEFAULT_PIN, new BigDecimal("100.00"));
+
+        val successful = new AtomicInteger();
+        val rejected = new AtomicInteger();
+        runConcurrently(() -> {
+            try {
+                accountService.cashWithdrawal(accountNumber, DEFAULT_PIN, amount);
+                successful.incrementAndGet();
+            } catch (InsufficientBalanceException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        Assertions.assertEquals(10, successful.get());
+        Assertions.assertEquals(THREADS * OPERATIONS_PER_THREAD - 10, rejected.get());
+        Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(getBalance(accountNumber)));
+    }
+
+    @Test
+    public void test_concurrent_transfers_preserve_total_balance() throws Exception {
+        val sourceAccountNumber = createAccount().get("accountNumber");
+        val targetAccountNumber = createAccount().get("accountNumber");
+        val initialBalance = new BigDecimal("1000.00");
+        accountService.cashDeposit(sourceAccountNumber, DEFAULT_PIN, initialBalance);
+
+        runConcurrently(() -> accountService.fundTransfer(
+                sourceAccountNumber, targetAccountNumber, new BigDecimal("1.00"), DEFAULT_PIN));
+
+        val transferred = BigDecimal.valueOf(THREADS * OPERATIONS_PER_THREAD);
+        Assertions.assertEquals(0, initialBalance.subtract(transferred).compareTo(getBalance(sourceAccountNumber)));
+        Assertions.assertEquals(0, transferred.compareTo(getBalance(targetAccountNumber)));
+    }
+
+    @Test
+    public void test_opposite_concurrent_transfers_do_not_deadlock() throws Exception {
+        val firstAccountNumber = createAccount().get("accountNumber");
+        val secondAccountNumber = createAccount().get("accountNumber");
+        val initialBalance = new BigDecimal("1000.00");
+        accountService.cashDeposit(firstAccountNumber, DEFAULT_PIN, initialBalance);
+        accountService.cashDeposit(secondAccountNumber, DEFAULT_PIN, initialBalance);
+
+        val direction = new AtomicInteger();
+        runConcurrently(() -> {
+            if (direction.getAndIncrement() % 2 == 0) {
+                accountService.fundTransfer(firstAccountNumber, secondAccountNumber, BigDecimal.ONE, DEFAULT_PIN);
+            } else {
+                accountService.fundTransfer(secondAccountNumber, firstAccountNumber, BigDecimal.ONE, DEFAULT_PIN);
+            }
+        });
+
+        val total = getBalance(firstAccountNumber).add(getBalance(secondAccountNumber));
+        Assertions.assertEquals(0, initialBalance.add(initialBalance).compareTo(total));
+    }
+
+    protected BigDecimal getBalance(String accountNumber) {
+        return accountRepository.findBalanceByAccountNumber(accountNumber)
+                .orElseThrow(() -> new RuntimeException("Account not found"));
+    }
+
+    protected static void runConcurrently(Runnable operation) throws Exception {
+        val executor = Executors.newFixedThreadPool(THREADS);
+        val startGate = new CountDownLatch(1);
+        val futures = new ArrayList<Future<?>>();
+
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    startGate.await();
+                    for (int j = 0; j < OPERATIONS_PER_THREAD; j++) {
+                        operation.run();
+                    }
+                    return null;
+                }));
+            }
+
+            startGate.countDown();
+            for (val future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
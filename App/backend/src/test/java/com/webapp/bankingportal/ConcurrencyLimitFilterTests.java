@@ -0,0 +1,136 @@
+package com.webapp.bankingportal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.webapp.bankingportal.dto.LoginRequest;
+import com.webapp.bankingportal.enums.EndpointClass;
+import com.webapp.bankingportal.filter.AdaptiveConcurrencyLimit;
+import com.webapp.bankingportal.filter.ConcurrencyLimitFilter;
+import com.webapp.bankingportal.util.ApiMessages;
+import com.webapp.bankingportal.util.JsonUtil;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.val;
+
+public class ConcurrencyLimitFilterTests extends BaseTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Autowired
+    ConcurrencyLimitFilter concurrencyLimitFilter;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    public void test_requests_over_limit_are_refused_with_retry_after() throws Exception {
+        val userDetails = createAndLoginUser();
+        val reads = concurrencyLimitFilter.getLimit(EndpointClass.READ);
+        val rejected = meterRegistry.get("concurrency.rejected").tag("endpoint", "read").counter();
+        val before = rejected.count();
+
+        // Take every read slot, as requests stuck on the database would
+        var held = 0;
+        while (reads.tryAcquire() > 0) {
+            held++;
+        }
+
+        try {
+            Assertions.assertEquals(reads.getLimit(), held);
+            Assertions.assertEquals(held, meterRegistry.get("concurrency.inflight").tag("endpoint", "read")
+                    .gauge().value());
+
+            mockMvc.perform(MockMvcRequestBuilders
+                    .get("/api/account/balance")
+                    .header("Authorization", "Bearer " + userDetails.get("token")))
+                    .andExpect(MockMvcResultMatchers.status().isServiceUnavailable())
+                    .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.RETRY_AFTER, "1"))
+                    .andExpect(MockMvcResultMatchers.content().string(ApiMessages.SERVER_BUSY_ERROR.getMessage()));
+
+            // Other endpoint classes keep their own slots
+            mockMvc.perform(MockMvcRequestBuilders
+                    .post("/api/users/login")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(JsonUtil.toJson(new LoginRequest(userDetails.get("accountNumber"),
+                            userDetails.get("password")))))
+                    .andExpect(MockMvcResultMatchers.status().isOk());
+        } finally {
+            for (int i = 0; i < held; i++) {
+                reads.release();
+            }
+        }
+
+        Assertions.assertEquals(before + 1, rejected.count());
+        mockMvc.perform(MockMvcRequestBuilders
+                .get("/api/account/balance")
+                .header("Authorization", "Bearer " + userDetails.get("token")))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    @Test
+    public void test_limit_grows_while_latency_holds() {
+        val limit = new AdaptiveConcurrencyLimit(20, 4, 200, 2.0);
+
+        for (int i = 0; i < 200; i++) {
+            limit.onSample(10 * MILLIS, limit.getLimit());
+        }
+
+        Assertions.assertEquals(200, limit.getLimit());
+    }
+
+    @Test
+    public void test_limit_shrinks_when_latency_rises() {
+        val limit = new AdaptiveConcurrencyLimit(100, 4, 200, 2.0);
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(10 * MILLIS, 1);
+        }
+        Assertions.assertEquals(100, limit.getLimit());
+
+        // The database slows down tenfold
+        for (int i = 0; i < 10; i++) {
+            limit.onSample(100 * MILLIS, limit.getLimit());
+        }
+        val shrunk = limit.getLimit();
+        Assertions.assertTrue(shrunk < 50, "Limit " + shrunk);
+
+        for (int i = 0; i < 1000; i++) {
+            limit.onSample(30_000 * MILLIS, limit.getLimit());
+        }
+        Assertions.assertTrue(limit.getLimit() >= 4);
+    }
+
+    @Test
+    public void test_idle_samples_leave_limit_alone() {
+        val limit = new AdaptiveConcurrencyLimit(20, 4, 200, 2.0);
+
+        limit.onSample(10 * MILLIS, 1);
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(1000 * MILLIS, 9);
+        }
+
+        Assertions.assertEquals(20, limit.getLimit());
+    }
+
+    @Test
+    public void test_acquire_stops_at_limit() {
+        val limit = new AdaptiveConcurrencyLimit(4, 1, 10, 2.0);
+
+        for (int i = 1; i <= 4; i++) {
+            Assertions.assertEquals(i, limit.tryAcquire());
+        }
+        Assertions.assertEquals(0, limit.tryAcquire());
+
+        limit.release();
+        Assertions.assertEquals(4, limit.tryAcquire());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimit(4, 5, 10, 2.0));
+    }
+
+}
@@ -0,0 +1,152 @@
+package com.webapp.bankingportal;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.webapp.bankingportal.dto.EmailContent;
+import com.webapp.bankingportal.entity.EmailOutbox;
+import com.webapp.bankingportal.enums.EmailStatus;
+import com.webapp.bankingportal.repository.EmailOutboxRepository;
+import com.webapp.bankingportal.service.EmailOutboxService;
+import com.webapp.bankingportal.service.LeaseService;
+import com.webapp.bankingportal.service.OtpService;
+
+import lombok.val;
+
+public class EmailOutboxTests extends BaseTest {
+
+    @Autowired
+    EmailOutboxService emailOutboxService;
+
+    @Autowired
+    EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    OtpService otpService;
+
+    @Test
+    public void test_otp_email_is_queued_in_request_transaction() {
+        val email = randomEmail();
+
+        otpService.sendOTPByEmail(email, "Test User", getRandomAccountNumber(), getRandomOtp());
+
+        val queued = findByRecipient(email).orElseThrow();
+        Assertions.assertEquals(EmailStatus.PENDING, queued.getStatus());
+        Assertions.assertEquals(0, GreenMailJavaMailSender.getReceivedMessagesForDomain(email).length);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void test_dispatch_sends_and_deletes_queued_email() throws Exception {
+        val email = randomEmail();
+        emailOutboxService.enqueue(email, "Subject", new EmailContent("<p>Body</p>", "Body"));
+
+        // The scheduled dispatcher may get there first, so wait for either
+        for (int i = 0; i < 50 && findByRecipient(email).isPresent(); i++) {
+            emailOutboxService.dispatch();
+            Thread.sleep(100);
+        }
+
+        Assertions.assertTrue(findByRecipient(email).isEmpty());
+        Assertions.assertEquals(1, GreenMailJavaMailSender.getReceivedMessagesForDomain(email).length);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void test_failing_email_is_retried_then_dead_lettered() throws Exception {
+        val dispatcher = AopTestUtils.getTargetObject(emailOutboxService);
+        val previousSender = ReflectionTestUtils.getField(dispatcher, "mailSender");
+        val previousMaxAttempts = ReflectionTestUtils.getField(dispatcher, "maxAttempts");
+        val previousBackoff = ReflectionTestUtils.getField(dispatcher, "initialBackoff");
+
+        val unreachable = new JavaMailSenderImpl();
+        unreachable.setHost("localhost");
+        unreachable.setPort(1);
+        ReflectionTestUtils.setField(dispatcher, "mailSender", unreachable);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 2);
+        ReflectionTestUtils.setField(dispatcher, "initialBackoff", Duration.ZERO);
+
+        val email = randomEmail();
+        try {
+            emailOutboxService.enqueue(email, "Subject", new EmailContent("<p>Body</p>", "Body"));
+            for (int i = 0; i < 50 && findByRecipient(email).orElseThrow().getStatus() != EmailStatus.DEAD; i++) {
+                emailOutboxService.dispatch();
+                Thread.sleep(100);
+            }
+
+            val deadLetter = findByRecipient(email).orElseThrow();
+            Assertions.assertEquals(EmailStatus.DEAD, deadLetter.getStatus());
+            Assertions.assertEquals(2, deadLetter.getAttempts());
+            Assertions.assertNotNull(deadLetter.getLastError());
+            Assertions.assertEquals("", deadLetter.getBody());
+            Assertions.assertNull(deadLetter.getTextBody());
+            Assertions.assertEquals(0, GreenMailJavaMailSender.getReceivedMessagesForDomain(email).length);
+        } finally {
+            ReflectionTestUtils.setField(dispatcher, "mailSender", previousSender);
+            ReflectionTestUtils.setField(dispatcher, "maxAttempts", previousMaxAttempts);
+            ReflectionTestUtils.setField(dispatcher, "initialBackoff", previousBackoff);
+            findByRecipient(email).ifPresent(emailOutboxRepository::delete);
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void test_dispatch_stops_once_the_lease_is_lost() {
+        val dispatcher = AopTestUtils.getTargetObject(emailOutboxService);
+        val previousLeaseService = ReflectionTestUtils.getField(dispatcher, "leaseService");
+        val previousBatchSize = ReflectionTestUtils.getField(dispatcher, "batchSize");
+
+        // Taking the lease and renewing it for the first batch succeed, then another instance takes over
+        val testThread = Thread.currentThread();
+        val renewals = new AtomicInteger();
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 1);
+        ReflectionTestUtils.setField(dispatcher, "leaseService", new LeaseService() {
+            @Override
+            public boolean tryAcquire(String name, Duration duration) {
+                return Thread.currentThread() == testThread && renewals.incrementAndGet() <= 2;
+            }
+
+            @Override
+            public void release(String name) {
+            }
+        });
+
+        // Saved directly, so no dispatch is woken up for them
+        val emails = new ArrayList<EmailOutbox>();
+        for (int i = 0; i < 3; i++) {
+            emails.add(emailOutboxRepository.save(
+                    new EmailOutbox(randomEmail(), "Subject", "<p>Body</p>", "Body", LocalDateTime.now())));
+        }
+        try {
+            Assertions.assertEquals(1, emailOutboxService.dispatch());
+        } finally {
+            ReflectionTestUtils.setField(dispatcher, "leaseService", previousLeaseService);
+            ReflectionTestUtils.setField(dispatcher, "batchSize", previousBatchSize);
+            emails.forEach(email -> emailOutboxRepository.deleteById(email.getId()));
+        }
+    }
+
+    private Optional<EmailOutbox> findByRecipient(String email) {
+        return emailOutboxRepository.findAll().stream()
+                .filter(queued -> queued.getRecipient().equals(email))
+                .findFirst();
+    }
+
+    private static String randomEmail() {
+        return "outbox-" + UUID.randomUUID() + "@example.com";
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.webapp.bankingportal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.webapp.bankingportal.service.OtpServiceImpl;
+import com.webapp.bankingportal.util.EmailTemplate;
+
+/**
+ * Compares rendering the emails from precompiled templates with the string
+ * concatenation they replaced. Not run by the test suite; start it with
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.webapp.bankingportal.EmailTemplateBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+    @Param({ "Jane Doe", "Tom & Jerry <script>" })
+    public String name;
+
+    private EmailTemplate loginHtml;
+    private EmailTemplate otpHtml;
+
+    @Setup
+    public void setUp() {
+        loginHtml = EmailTemplate.load("templates/email/login.html", "name", "loginTime", "loginLocation");
+        otpHtml = EmailTemplate.load("templates/email/otp.html", "name", "accountNumber", "expiryMinutes", "otp");
+    }
+
+    @Benchmark
+    public String loginTemplate() {
+        return loginHtml.render(name, "2024-07-01 12:00:00.0", "Pune, India");
+    }
+
+    @Benchmark
+    public String loginConcatenation() {
+        return concatenateLoginEmail(name, "2024-07-01 12:00:00.0", "Pune, India");
+    }
+
+    @Benchmark
+    public String otpTemplate() {
+        return otpHtml.render(name, "xxx123", String.valueOf(OtpServiceImpl.OTP_EXPIRY_MINUTES), "123456");
+    }
+
+    @Benchmark
+    public String otpConcatenation() {
+        return concatenateOtpEmail(name, "xxx123", "123456");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EmailTemplateBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    // The unescaped concatenation EmailServiceImpl used before templates
+    private static String concatenateLoginEmail(String name, String loginTime, String loginLocation) {
+        return "<div style=\"font-family: Helvetica, Arial, sans-serif; min-width: 320px; max-width: 1000px; margin: 0 auto; overflow: auto; line-height: 2; background-color: #f1f1f1; padding: 20px;\">"
+                + "<div style=\"margin: 50px auto; width: 100%; max-width: 600px; padding: 20px; background-color: #ffffff; border-radius: 8px; box-shadow: 0 0 20px rgba(0, 0, 0, 0.1);\">"
+                + "<div style=\"border-bottom: 1px solid #ddd; padding-bottom: 10px; text-align: center;\">"
+                + "<a href=\"https://onestopbank.netlify.app/\" style=\"text-decoration: none;\">"
+                + "<img src=\"https://onestopbank.netlify.app/assets/onestoplogo.jpg\" alt=\"Secure Bank\" style=\"height: 50px; margin-bottom: 10px;\">"
+                + "</a>" + "<h1 style=\"font-size: 1.8em; color: #3f51b5; margin: 10px 0;\">Secure Bank</h1>" + "</div>"
+                + "<div style=\"padding: 20px;\">" + "<p style=\"font-size: 1.2em; color: #333;\">Hi, " + name + ",</p>"
+                + "<p style=\"font-size: 1em; color: #333;\">A login attempt was made on your account at:</p>"
+                + "<p style=\"font-size: 1em; color: #555;\">Time: <strong style=\"color: #3f51b5;\">" + loginTime
+                + "</strong></p>"
+                + "<p style=\"font-size: 1em; color: #555;\">Location: <strong style=\"color: #3f51b5;\">"
+                + loginLocation + "</strong></p>"
+                + "<p style=\"font-size: 1em; color: #333;\">If this was you, no further action is required. If you suspect any unauthorized access, please change your password immediately and contact our support team.</p>"
+                + "<p style=\"font-size: 1em; color: #555;\">Regards,<br />The Secure Bank Team</p>" + "</div>"
+                + "<hr style=\"border: none; border-top: 1px solid #ddd; margin: 20px 0;\" />"
+                + "<div style=\"text-align: center; font-size: 0.9em; color: #888;\">"
+                + "<p>Need help? Contact our support team:</p>"
+                + "<p>Email: <a href=\"mailto:onestopbank@google.com\" style=\"color: #3f51b5; text-decoration: none;\">onestopbank@google.com</a></p>"
+                + "<div style=\"margin-top: 20px;\">"
+                + "<p style=\"font-size: 1em; color: #333;\">Show your support here ❤️</p>"
+                + "<a href=\"https://github.com/abhi9720/BankingPortal-API\" style=\"margin: 0 10px; color: #3f51b5; text-decoration: none;\">GitHub</a>"
+                + "</div>" + "</div>" + "</div>" + "</div>";
+    }
+
+    private static String concatenateOtpEmail(String name, String accountNumber, String otp) {
+        return "<div style=\"font-family: Helvetica, Arial, sans-serif; min-width: 320px; max-width: 1000px; margin: 0 auto; overflow: auto; line-height: 2; background-color: #f1f1f1; padding: 20px;\">"
+                + "<div style=\"margin: 50px auto; width: 100%; max-width: 600px; padding: 20px; background-color: #ffffff; border-radius: 8px; box-shadow: 0 0 20px rgba(0, 0, 0, 0.1);\">"
+                + "<div style=\"border-bottom: 1px solid #ddd; padding-bottom: 10px; text-align: center;\">"
+                + "<a href=\"https://onestopbank.netlify.app/\" style=\"text-decoration: none;\">"
+                + "<img src=\"https://onestopbank.netlify.app/assets/onestoplogo.jpg\" alt=\"Secure Bank\" style=\"height: 50px; margin-bottom: 10px;\">"
+                + "</a>" + "<h1 style=\"font-size: 1.8em; color: #3f51b5; margin: 10px 0;\">Secure Bank</h1>" + "</div>"
+                + "<div style=\"padding: 20px;\">" + "<p style=\"font-size: 1.2em; color: #333;\">Hi, " + name + ",</p>"
+                + "<p style=\"font-size: 1em; color: #555;\">Account Number: <strong style=\"color: #3f51b5;\">"
+                + accountNumber + "</strong></p>"
+                + "<p style=\"font-size: 1em; color: #333;\">Thank you for choosing Secure Bank. Use the following OTP to complete your login procedures. The OTP is valid for "
+                + OtpServiceImpl.OTP_EXPIRY_MINUTES + " minutes:</p>"
+                + "<h2 style=\"background: #3f51b5; margin: 20px 0; width: max-content; padding: 10px 20px; color: #fff; border-radius: 4px;\">"
+                + otp + "</h2>" + "<p style=\"font-size: 1em; color: #555;\">Regards,<br />The Secure Bank Team</p>"
+                + "</div>" + "<hr style=\"border: none; border-top: 1px solid #ddd; margin: 20px 0;\" />"
+                + "<div style=\"text-align: center; font-size: 0.9em; color: #888;\">"
+                + "<p>Need help? Contact our support team:</p>"
+                + "<p>Email: <a href=\"mailto:onestopbank@google.com\" style=\"color: #3f51b5; text-decoration: none;\">onestopbank@google.com</a></p>"
+                + "<div style=\"margin-top: 20px;\">"
+                + "<p style=\"font-size: 1em; color: #333;\">Show your support here ❤️</p>"
+                + "<a href=\"https://github.com/abhi9720/BankingPortal-API\" style=\"margin: 0 10px; color: #3f51b5; text-decoration: none;\">GitHub</a>"
+                + "</div>" + "</div>" + "</div>" + "</div>";
+    }
+
+}
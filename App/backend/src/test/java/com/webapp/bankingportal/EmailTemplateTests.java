@@ -0,0 +1,49 @@
+package com.webapp.bankingportal;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.webapp.bankingportal.service.EmailServiceImpl;
+import com.webapp.bankingportal.util.EmailTemplate;
+
+import lombok.val;
+
+public class EmailTemplateTests {
+
+    @Test
+    public void test_html_slots_are_escaped() {
+        val template = EmailTemplate.compile("test.html", "<p>{{a}} & {{b}}</p>{{a}}", true, "a", "b");
+
+        Assertions.assertEquals("<p>&lt;b&gt;Tom&#39;s&lt;/b&gt; & &quot;x&quot; &amp;</p>&lt;b&gt;Tom&#39;s&lt;/b&gt;",
+                template.render("<b>Tom's</b>", "\"x\" &"));
+    }
+
+    @Test
+    public void test_text_slots_are_written_as_is() {
+        val template = EmailTemplate.compile("test.txt", "{{a}} & {{b}}", false, "a", "b");
+
+        Assertions.assertEquals("<b> & ", template.render("<b>", null));
+    }
+
+    @Test
+    public void test_slots_must_match_declared_parameters() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> EmailTemplate.compile("test.html", "{{nmae}}", true, "name"));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> EmailTemplate.compile("test.html", "{{name}}", true, "name", "otp"));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> EmailTemplate.compile("test.html", "{{name}}", true, "name").render("a", "b"));
+    }
+
+    @Test
+    public void test_otp_email_has_html_and_text_alternates() {
+        val content = new EmailServiceImpl(null).getOtpLoginEmailTemplate("Tom & Jerry", "xxx123", "654321");
+
+        Assertions.assertTrue(content.html().contains("Hi, Tom &amp; Jerry,"));
+        Assertions.assertTrue(content.html().matches("(?s).*<h2[^>]*>654321</h2>.*"));
+        Assertions.assertTrue(content.text().contains("Hi, Tom & Jerry,"));
+        Assertions.assertTrue(content.text().contains("valid for 5 minutes"));
+        Assertions.assertFalse(content.text().contains("<"));
+    }
+
+}
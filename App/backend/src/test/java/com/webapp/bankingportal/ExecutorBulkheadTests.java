@@ -0,0 +1,156 @@
+package com.webapp.bankingportal;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import com.webapp.bankingportal.config.AsyncConfig;
+import com.webapp.bankingportal.dto.LoginRequest;
+import com.webapp.bankingportal.util.ApiMessages;
+import com.webapp.bankingportal.util.JsonUtil;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import lombok.val;
+
+public class ExecutorBulkheadTests extends BaseTest {
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier(AsyncConfig.REPORTING_EXECUTOR)
+    ThreadPoolTaskExecutor reportingExecutor;
+
+    @Autowired
+    @Qualifier(AsyncConfig.HASHING_EXECUTOR)
+    ThreadPoolTaskExecutor hashingExecutor;
+
+    @Test
+    public void test_every_workload_has_its_own_bounded_executor() {
+        for (val name : new String[] { AsyncConfig.NOTIFICATION_EXECUTOR, AsyncConfig.GEOLOCATION_EXECUTOR,
+                AsyncConfig.REPORTING_EXECUTOR, AsyncConfig.HASHING_EXECUTOR }) {
+            meterRegistry.get("executor.queued").tag("name", name).gauge();
+            meterRegistry.get("executor.active").tag("name", name).gauge();
+            meterRegistry.get("executor.rejected").tag("name", name).counter();
+        }
+    }
+
+    @Test
+    public void test_password_is_hashed_on_hashing_executor() {
+        val completed = meterRegistry.get("executor.completed").tag("name", AsyncConfig.HASHING_EXECUTOR)
+                .functionCounter();
+        val before = completed.count();
+
+        passwordEncoder.encode("password");
+
+        // The pool counts the task just after handing back its result
+        val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (completed.count() == before && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        Assertions.assertTrue(completed.count() > before);
+    }
+
+    @Test
+    public void test_export_is_refused_while_reporting_executor_is_full() throws Exception {
+        val userDetails = createAndLoginUser();
+        val rejected = meterRegistry.get("executor.rejected").tag("name", AsyncConfig.REPORTING_EXECUTOR).counter();
+        val before = rejected.count();
+
+        // Hold every reporting thread and fill the queue behind them
+        val gate = new CountDownLatch(1);
+        val held = new CountDownLatch(reportingExecutor.getMaxPoolSize());
+        val tasks = reportingExecutor.getMaxPoolSize() + reportingExecutor.getQueueCapacity();
+        for (int i = 0; i < tasks; i++) {
+            reportingExecutor.execute(() -> {
+                held.countDown();
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        try {
+            Assertions.assertTrue(held.await(5, TimeUnit.SECONDS));
+
+            val result = mockMvc.perform(MockMvcRequestBuilders
+                    .get("/api/account/transactions/export")
+                    .header("Authorization", "Bearer " + userDetails.get("token")))
+                    .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                    .andReturn();
+
+            // MockMvc only records results that went through the executor, so the
+            // dispatch of the refused export is replayed by hand
+            Assertions.assertInstanceOf(TaskRejectedException.class,
+                    WebAsyncUtils.getAsyncManager(result.getRequest()).getConcurrentResult());
+            mockMvc.perform(servletContext -> {
+                val request = result.getRequest();
+                request.setDispatcherType(DispatcherType.ASYNC);
+                request.setAsyncStarted(false);
+                return request;
+            })
+                    .andExpect(MockMvcResultMatchers.status().isServiceUnavailable())
+                    .andExpect(MockMvcResultMatchers.content().string(ApiMessages.SERVER_BUSY_ERROR.getMessage()));
+        } finally {
+            gate.countDown();
+        }
+
+        Assertions.assertEquals(before + 1, rejected.count());
+    }
+
+    @Test
+    public void test_login_is_refused_while_hashing_executor_is_full() throws Exception {
+        val accountDetails = createAccount();
+
+        // Hold every hashing thread, then fill the queue behind them until it refuses more
+        val gate = new CountDownLatch(1);
+        val held = new CountDownLatch(hashingExecutor.getMaxPoolSize());
+        Runnable hold = () -> {
+            held.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        try {
+            for (int i = 0; i < hashingExecutor.getMaxPoolSize(); i++) {
+                hashingExecutor.execute(hold);
+            }
+            Assertions.assertTrue(held.await(5, TimeUnit.SECONDS));
+            while (true) {
+                try {
+                    hashingExecutor.execute(hold);
+                } catch (TaskRejectedException e) {
+                    break;
+                }
+            }
+
+            mockMvc.perform(MockMvcRequestBuilders
+                    .post("/api/users/login")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(JsonUtil.toJson(new LoginRequest(accountDetails.get("accountNumber"),
+                            accountDetails.get("password")))))
+                    .andExpect(MockMvcResultMatchers.status().isTooManyRequests())
+                    .andExpect(MockMvcResultMatchers.content()
+                            .string(ApiMessages.PASSWORD_HASHING_BUSY_ERROR.getMessage()));
+        } finally {
+            gate.countDown();
+        }
+    }
+
+}
@@ -0,0 +1,155 @@
+package com.webapp.bankingportal;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.webapp.bankingportal.exception.GeolocationException;
+import com.webapp.bankingportal.service.GeolocationServiceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.val;
+
+public class GeolocationServiceTests {
+
+    private static final String LOCATION = "{\"city\": {\"names\": {\"en\": \"Pune\"}}, "
+            + "\"country\": {\"names\": {\"en\": \"India\"}}}";
+
+    private HttpServer server;
+    private AtomicInteger upstreamCalls;
+    private SimpleMeterRegistry meterRegistry;
+    private GeolocationServiceImpl geolocationService;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        upstreamCalls = new AtomicInteger();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+
+        meterRegistry = new SimpleMeterRegistry();
+        geolocationService = createGeolocationService(Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void test_addresses_in_one_network_share_a_lookup() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            val response = geolocationService.getGeolocation("203.0.113." + (i % 50)).get();
+            Assertions.assertEquals("Pune", response.getCity().getNames().get("en"));
+        }
+        geolocationService.getGeolocation("198.51.100.7").get();
+
+        Assertions.assertEquals(2, upstreamCalls.get());
+        Assertions.assertEquals(99, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        Assertions.assertEquals(2, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    public void test_ipv6_addresses_are_grouped_by_prefix() throws Exception {
+        geolocationService.getGeolocation("2001:db8:1:1::1").get();
+        geolocationService.getGeolocation("2001:db8:1:ffff::2").get();
+        geolocationService.getGeolocation("2001:db8:2::1").get();
+
+        Assertions.assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    public void test_failed_lookups_are_cached() {
+        for (int i = 0; i < 5; i++) {
+            val future = geolocationService.getGeolocation("192.0.2." + i);
+            val exception = Assertions.assertThrows(ExecutionException.class, future::get);
+            Assertions.assertInstanceOf(GeolocationException.class, exception.getCause());
+        }
+
+        Assertions.assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    public void test_slow_api_times_out() {
+        val impatientService = createGeolocationService(Duration.ofMillis(200));
+        val start = System.nanoTime();
+        val future = impatientService.getGeolocation("100.64.0.1");
+
+        Assertions.assertThrows(ExecutionException.class, future::get);
+        Assertions.assertTrue(System.nanoTime() - start < Duration.ofSeconds(1).toNanos());
+    }
+
+    @Test
+    public void test_host_names_are_rejected_without_lookup() {
+        val exception = Assertions.assertThrows(ExecutionException.class,
+                () -> geolocationService.getGeolocation("example.com").get());
+
+        Assertions.assertInstanceOf(UnknownHostException.class, exception.getCause());
+        Assertions.assertEquals(0, upstreamCalls.get());
+    }
+
+    @Test
+    public void test_values_that_are_not_ip_literals_are_rejected_without_lookup() {
+        for (val ip : new String[] { "beef", "cafe", "dead.beef", "1.2.3", "1.2.3.4.5", "256.0.0.1", "010.0.0.1",
+                "1::2::3", "1:2:3:4:5:6:7:8:9", "1:2:3:4:5:6:7", "::1%eth0", "::ffff:1.2.3", "12345::", "" }) {
+            val exception = Assertions.assertThrows(ExecutionException.class,
+                    () -> geolocationService.getGeolocation(ip).get(), ip);
+            Assertions.assertInstanceOf(UnknownHostException.class, exception.getCause(), ip);
+        }
+
+        Assertions.assertEquals(0, upstreamCalls.get());
+    }
+
+    @Test
+    public void test_hex_only_ipv6_literals_are_looked_up() throws Exception {
+        geolocationService.getGeolocation("cafe::").get();
+        geolocationService.getGeolocation("cafe::1").get();
+        geolocationService.getGeolocation("::ffff:203.0.113.9").get();
+
+        // The first two share a /48, and the IPv4-mapped address is grouped as IPv4
+        Assertions.assertEquals(2, upstreamCalls.get());
+    }
+
+    private GeolocationServiceImpl createGeolocationService(Duration readTimeout) {
+        return new GeolocationServiceImpl(
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/", "test-api-key",
+                Duration.ofSeconds(1), readTimeout, Duration.ofHours(1), Duration.ofMinutes(5),
+                1000, 24, 48, meterRegistry);
+    }
+
+    /**
+     * Answers 192.0.2.0/24 with an error, 100.64.0.0/10 too slowly, and
+     * everything else with a location.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        upstreamCalls.incrementAndGet();
+        val path = exchange.getRequestURI().getPath();
+        try {
+            if (path.startsWith("/100.64.")) {
+                Thread.sleep(2000);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        val status = path.startsWith("/192.0.2.") ? 500 : 200;
+        val body = (status == 200 ? LOCATION : "{}").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (val output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+}
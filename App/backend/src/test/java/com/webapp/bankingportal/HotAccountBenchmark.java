@@ -0,0 +1,128 @@
+package com.webapp.bankingportal;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.webapp.bankingportal.repository.UserRepository;
+import com.webapp.bankingportal.service.AccountService;
+import com.webapp.bankingportal.service.impl.AccountServiceImpl;
+import com.webapp.bankingportal.service.impl.ShardedAccountService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.val;
+
+/**
+ * Compares transfers into one hot merchant account on the default
+ * transactional path, where every payer waits on the merchant's row lock,
+ * with the sharded execution mode, which queues them on the merchant's
+ * shard. Each benchmark thread pays from its own account. Boots the
+ * application with the test profile and writes to its database. Not run by
+ * the test suite; start it with
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.webapp.bankingportal.HotAccountBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(HotAccountBenchmark.PAYERS)
+@Fork(1)
+public class HotAccountBenchmark {
+
+    static final int PAYERS = 8;
+    private static final int SHARDS = 8;
+    private static final String DEFAULT_PIN = "0000";
+    private static final BigDecimal DEPOSIT = new BigDecimal("100000.00");
+
+    @Param({ "transactional", "sharded" })
+    public String mode;
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private String merchantAccountNumber;
+    private final String[] payerAccountNumbers = new String[PAYERS];
+    private final AtomicInteger nextPayer = new AtomicInteger();
+
+    @State(Scope.Thread)
+    public static class Payer {
+
+        String accountNumber;
+
+        @Setup
+        public void setUp(HotAccountBenchmark benchmark) {
+            accountNumber = benchmark.payerAccountNumbers[benchmark.nextPayer.getAndIncrement() % PAYERS];
+        }
+
+    }
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(BankingportalApplication.class)
+                .profiles("test")
+                // Leave the rows of earlier runs alone; Hibernate keeps the schema up to date
+                .run("--server.port=0", "--spring.sql.init.mode=never", "--spring.jpa.show-sql=false");
+
+        val accountServiceImpl = context.getBean(AccountServiceImpl.class);
+        accountService = mode.equals("sharded")
+                ? new ShardedAccountService(accountServiceImpl, SHARDS, 10_000, new SimpleMeterRegistry())
+                : accountServiceImpl;
+
+        merchantAccountNumber = createAccount();
+        for (int i = 0; i < PAYERS; i++) {
+            payerAccountNumbers[i] = createAccount();
+            accountService.cashDeposit(payerAccountNumbers[i], DEFAULT_PIN, DEPOSIT);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (accountService instanceof ShardedAccountService shardedAccountService) {
+            shardedAccountService.shutdown();
+        }
+        context.close();
+    }
+
+    @Benchmark
+    public void payMerchant(Payer payer) {
+        accountService.fundTransfer(payer.accountNumber, merchantAccountNumber, BigDecimal.ONE, DEFAULT_PIN);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(HotAccountBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private String createAccount() {
+        val user = BaseTest.createUser();
+        // Some regions fall back to their example number, which a second account would clash with
+        user.setCountryCode("IN");
+        user.setPhoneNumber(BaseTest.getRandomPhoneNumber("IN"));
+        user.setPassword(context.getBean(PasswordEncoder.class).encode(user.getPassword()));
+        context.getBean(UserRepository.class).save(user);
+        return accountService.createAccount(user).getAccountNumber();
+    }
+
+}
@@ -0,0 +1,202 @@
+package com.webapp.bankingportal;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.webapp.bankingportal.dto.AmountRequest;
+import com.webapp.bankingportal.dto.TransactionFilter;
+import com.webapp.bankingportal.filter.IdempotencyFilter;
+import com.webapp.bankingportal.repository.AccountRepository;
+import com.webapp.bankingportal.service.IdempotencyService;
+import com.webapp.bankingportal.service.TransactionService;
+import com.webapp.bankingportal.util.JsonUtil;
+
+import lombok.val;
+
+public class IdempotencyFilterTests extends BaseTest {
+
+    private static final String DEFAULT_PIN = "0000";
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    TransactionService transactionService;
+
+    @Autowired
+    IdempotencyService idempotencyService;
+
+    @Test
+    public void test_deposit_replay_returns_original_response() throws Exception {
+        val userDetails = createAndLoginUser();
+        val accountNumber = userDetails.get("accountNumber");
+        val amountRequest = new AmountRequest(new BigDecimal("100.00"), DEFAULT_PIN);
+
+        val first = deposit(userDetails.get("token"), "deposit-1", amountRequest)
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist(IdempotencyFilter.IDEMPOTENT_REPLAY_HEADER))
+                .andReturn().getResponse().getContentAsString();
+
+        val second = deposit(userDetails.get("token"), "deposit-1", amountRequest)
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(IdempotencyFilter.IDEMPOTENT_REPLAY_HEADER, "true"))
+                .andReturn().getResponse().getContentAsString();
+
+        Assertions.assertEquals(first, second);
+        Assertions.assertEquals(0, new BigDecimal("100.00")
+                .compareTo(getBalance(accountNumber)));
+        Assertions.assertEquals(1, transactionService
+                .getTransactions(accountNumber, new TransactionFilter(null, null, null, null, null)).transactions().size());
+    }
+
+    @Test
+    public void test_deposit_with_different_keys_is_applied_twice() throws Exception {
+        val userDetails = createAndLoginUser();
+        val amountRequest = new AmountRequest(new BigDecimal("100.00"), DEFAULT_PIN);
+
+        deposit(userDetails.get("token"), "deposit-1", amountRequest)
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        deposit(userDetails.get("token"), "deposit-2", amountRequest)
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        Assertions.assertEquals(0, new BigDecimal("200.00")
+                .compareTo(getBalance(userDetails.get("accountNumber"))));
+    }
+
+    @Test
+    public void test_key_reused_with_different_body() throws Exception {
+        val userDetails = createAndLoginUser();
+
+        deposit(userDetails.get("token"), "deposit-1", new AmountRequest(new BigDecimal("100.00"), DEFAULT_PIN))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        deposit(userDetails.get("token"), "deposit-1", new AmountRequest(new BigDecimal("200.00"), DEFAULT_PIN))
+                .andExpect(MockMvcResultMatchers.status().isUnprocessableEntity());
+
+        Assertions.assertEquals(0, new BigDecimal("100.00")
+                .compareTo(getBalance(userDetails.get("accountNumber"))));
+    }
+
+    @Test
+    public void test_failed_request_is_not_stored() throws Exception {
+        val userDetails = createAndLoginUser();
+        val amountRequest = new AmountRequest(new BigDecimal("100.00"), DEFAULT_PIN);
+
+        mockMvc.perform(MockMvcRequestBuilders
+                .post("/api/account/withdraw")
+                .header("Authorization", "Bearer " + userDetails.get("token"))
+                .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "withdraw-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonUtil.toJson(amountRequest)))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist(IdempotencyFilter.IDEMPOTENT_REPLAY_HEADER));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                .post("/api/account/withdraw")
+                .header("Authorization", "Bearer " + userDetails.get("token"))
+                .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "withdraw-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonUtil.toJson(amountRequest)))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist(IdempotencyFilter.IDEMPOTENT_REPLAY_HEADER));
+    }
+
+    @Test
+    public void test_claimed_key_is_not_applied_again() throws Exception {
+        val userDetails = createAndLoginUser();
+        val accountNumber = userDetails.get("accountNumber");
+        val amountRequest = new AmountRequest(new BigDecimal("100.00"), DEFAULT_PIN);
+
+        // As left by a request on another node, or one that moved money and crashed before completing
+        Assertions.assertTrue(idempotencyService.claim(accountNumber, "deposit-1", depositHash(amountRequest)));
+        Assertions.assertFalse(idempotencyService.claim(accountNumber, "deposit-1", depositHash(amountRequest)));
+
+        deposit(userDetails.get("token"), "deposit-1", amountRequest)
+                .andExpect(MockMvcResultMatchers.status().isConflict());
+
+        Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(getBalance(accountNumber)));
+    }
+
+    @Test
+    public void test_claimed_key_reused_with_different_body() throws Exception {
+        val userDetails = createAndLoginUser();
+        val accountNumber = userDetails.get("accountNumber");
+
+        Assertions.assertTrue(idempotencyService.claim(accountNumber, "deposit-1",
+                depositHash(new AmountRequest(new BigDecimal("100.00"), DEFAULT_PIN))));
+
+        deposit(userDetails.get("token"), "deposit-1", new AmountRequest(new BigDecimal("200.00"), DEFAULT_PIN))
+                .andExpect(MockMvcResultMatchers.status().isUnprocessableEntity());
+
+        Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(getBalance(accountNumber)));
+    }
+
+    @Test
+    public void test_lapsed_claim_can_be_taken_over() throws Exception {
+        val userDetails = createAndLoginUser();
+        val accountNumber = userDetails.get("accountNumber");
+        val amountRequest = new AmountRequest(new BigDecimal("100.00"), DEFAULT_PIN);
+        val service = AopTestUtils.getTargetObject(idempotencyService);
+        val pendingLease = ReflectionTestUtils.getField(service, "pendingLease");
+
+        // As left by a request that died before it moved money or released the key
+        ReflectionTestUtils.setField(service, "pendingLease", Duration.ZERO);
+        try {
+            Assertions.assertTrue(idempotencyService.claim(accountNumber, "deposit-1", depositHash(amountRequest)));
+        } finally {
+            ReflectionTestUtils.setField(service, "pendingLease", pendingLease);
+        }
+
+        deposit(userDetails.get("token"), "deposit-1", amountRequest)
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        Assertions.assertEquals(0, new BigDecimal("100.00").compareTo(getBalance(accountNumber)));
+    }
+
+    @Test
+    public void test_blank_key_is_rejected() throws Exception {
+        val userDetails = createAndLoginUser();
+
+        deposit(userDetails.get("token"), " ", new AmountRequest(new BigDecimal("100.00"), DEFAULT_PIN))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    private BigDecimal getBalance(String accountNumber) {
+        return accountRepository.findBalanceByAccountNumber(accountNumber).orElseThrow();
+    }
+
+    /**
+     * The hash the filter gives a deposit with this body.
+     */
+    private static String depositHash(AmountRequest amountRequest) throws Exception {
+        val digest = MessageDigest.getInstance("SHA-256");
+        digest.update("/api/account/deposit".getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(JsonUtil.toJson(amountRequest).getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private ResultActions deposit(String token, String idempotencyKey,
+            AmountRequest amountRequest) throws Exception {
+
+        return mockMvc.perform(MockMvcRequestBuilders
+                .post("/api/account/deposit")
+                .header("Authorization", "Bearer " + token)
+                .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonUtil.toJson(amountRequest)));
+    }
+
+}
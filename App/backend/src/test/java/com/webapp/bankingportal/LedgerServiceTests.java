@@ -0,0 +1,199 @@
+package com.webapp.bankingportal;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.webapp.bankingportal.dto.TransactionFilter;
+import com.webapp.bankingportal.entity.BalanceSnapshot;
+import com.webapp.bankingportal.entity.DailyBalance;
+import com.webapp.bankingportal.enums.LedgerEntryType;
+import com.webapp.bankingportal.exception.NotFoundException;
+import com.webapp.bankingportal.repository.AccountRepository;
+import com.webapp.bankingportal.repository.BalanceSnapshotRepository;
+import com.webapp.bankingportal.repository.DailyBalanceRepository;
+import com.webapp.bankingportal.repository.LedgerEntryRepository;
+import com.webapp.bankingportal.service.LedgerService;
+import com.webapp.bankingportal.service.LedgerServiceImpl;
+import com.webapp.bankingportal.service.TransactionService;
+import com.webapp.bankingportal.util.ApiMessages;
+
+import jakarta.persistence.EntityManager;
+import lombok.val;
+
+public class LedgerServiceTests extends BaseTest {
+
+    private static final String DEFAULT_PIN = "0000";
+
+    @Autowired
+    LedgerService ledgerService;
+
+    @Autowired
+    LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Autowired
+    DailyBalanceRepository dailyBalanceRepository;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    TransactionService transactionService;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Test
+    public void test_transfer_writes_balanced_entries() {
+        val sourceAccountNumber = createAccount().get("accountNumber");
+        val targetAccountNumber = createAccount().get("accountNumber");
+        accountService.cashDeposit(sourceAccountNumber, DEFAULT_PIN, new BigDecimal("100.00"));
+        accountService.fundTransfer(sourceAccountNumber, targetAccountNumber, new BigDecimal("40.00"), DEFAULT_PIN);
+
+        val transaction = transactionService
+                .getTransactions(targetAccountNumber, new TransactionFilter(null, null, null, null, null))
+                .transactions().get(0);
+        val entries = ledgerEntryRepository.findByTransactionIdOrderById(transaction.getId());
+
+        Assertions.assertEquals(2, entries.size());
+        Assertions.assertEquals(LedgerEntryType.DEBIT, entries.get(0).getEntryType());
+        Assertions.assertEquals(sourceAccountNumber, entries.get(0).getAccountNumber());
+        Assertions.assertEquals(LedgerEntryType.CREDIT, entries.get(1).getEntryType());
+        Assertions.assertEquals(targetAccountNumber, entries.get(1).getAccountNumber());
+        Assertions.assertEquals(0, entries.get(0).getAmount().compareTo(entries.get(1).getAmount()));
+    }
+
+    @Test
+    public void test_computed_balance_matches_projection() {
+        val accountNumber = createAccount().get("accountNumber");
+        accountService.cashDeposit(accountNumber, DEFAULT_PIN, new BigDecimal("100.00"));
+        accountService.cashWithdrawal(accountNumber, DEFAULT_PIN, new BigDecimal("30.00"));
+
+        Assertions.assertEquals(0, new BigDecimal("70.00").compareTo(ledgerService.computeBalance(accountNumber)));
+        Assertions.assertTrue(ledgerService.verifyBalance(accountNumber));
+    }
+
+    @Test
+    public void test_checkpoint_keeps_computed_balance() {
+        val accountNumber = createAccount().get("accountNumber");
+        accountService.cashDeposit(accountNumber, DEFAULT_PIN, new BigDecimal("100.00"));
+
+        Assertions.assertTrue(ledgerService.checkpoint(LocalDateTime.now().plusSeconds(1)) > 0);
+        val snapshot = balanceSnapshotRepository.findFirstByAccountNumberOrderByIdDesc(accountNumber).orElseThrow();
+        Assertions.assertEquals(0, new BigDecimal("100.00").compareTo(snapshot.getBalance()));
+
+        accountService.cashDeposit(accountNumber, DEFAULT_PIN, new BigDecimal("25.00"));
+        Assertions.assertEquals(0, new BigDecimal("125.00").compareTo(ledgerService.computeBalance(accountNumber)));
+        Assertions.assertTrue(ledgerService.verifyBalance(accountNumber));
+    }
+
+    @Test
+    public void test_rebuild_restores_drifted_balance() {
+        val accountNumber = createAccount().get("accountNumber");
+        accountService.cashDeposit(accountNumber, DEFAULT_PIN, new BigDecimal("100.00"));
+        accountRepository.updateBalance(accountNumber, new BigDecimal("5.00"));
+
+        Assertions.assertFalse(ledgerService.verifyBalance(accountNumber));
+        Assertions.assertEquals(0, new BigDecimal("100.00").compareTo(ledgerService.rebuildBalance(accountNumber)));
+        Assertions.assertTrue(ledgerService.verifyBalance(accountNumber));
+    }
+
+    @Test
+    public void test_daily_closing_balance_is_maintained() {
+        val accountNumber = createAccount().get("accountNumber");
+        accountService.cashDeposit(accountNumber, DEFAULT_PIN, new BigDecimal("100.00"));
+        accountService.cashWithdrawal(accountNumber, DEFAULT_PIN, new BigDecimal("40.00"));
+
+        val today = dailyBalanceRepository.findByAccountNumberAndBalanceDate(accountNumber, LocalDate.now()).orElseThrow();
+        Assertions.assertEquals(0, new BigDecimal("60.00").compareTo(today.getClosingBalance()));
+    }
+
+    @Test
+    public void test_balance_as_of_uses_previous_closing_balance_and_day_deltas() {
+        val accountNumber = createAccount().get("accountNumber");
+        val today = LocalDate.now();
+        dailyBalanceRepository.save(new DailyBalance(accountNumber, today.minusDays(3), new BigDecimal("500.00")));
+        accountService.cashDeposit(accountNumber, DEFAULT_PIN, new BigDecimal("100.00"));
+
+        Assertions.assertEquals(0, new BigDecimal("600.00")
+                .compareTo(ledgerService.computeBalanceAsOf(accountNumber, LocalDateTime.now().plusSeconds(1))));
+        Assertions.assertEquals(0, new BigDecimal("500.00")
+                .compareTo(ledgerService.computeBalanceAsOf(accountNumber, today.atStartOfDay().minusSeconds(1))));
+        Assertions.assertEquals(0, BigDecimal.ZERO
+                .compareTo(ledgerService.computeBalanceAsOf(accountNumber, today.minusDays(4).atStartOfDay())));
+    }
+
+    @Test
+    public void test_balance_as_of_before_ledger_opened_is_not_found() {
+        val accountNumber = createAccount().get("accountNumber");
+        val today = LocalDate.now();
+        openLedger(accountNumber, new BigDecimal("500.00"));
+        accountService.cashDeposit(accountNumber, DEFAULT_PIN, new BigDecimal("100.00"));
+
+        Assertions.assertEquals(0, new BigDecimal("600.00")
+                .compareTo(ledgerService.computeBalanceAsOf(accountNumber, LocalDateTime.now().plusSeconds(1))));
+        val exception = Assertions.assertThrows(NotFoundException.class,
+                () -> ledgerService.computeBalanceAsOf(accountNumber, today.minusDays(3).atStartOfDay()));
+        Assertions.assertEquals(String.format(ApiMessages.BALANCE_HISTORY_NOT_FOUND_ERROR.getMessage(), today),
+                exception.getMessage());
+    }
+
+    @Test
+    public void test_rebuild_restores_daily_closing_balances() {
+        val accountNumber = createAccount().get("accountNumber");
+        val today = LocalDate.now();
+        openLedger(accountNumber, new BigDecimal("500.00"));
+        accountService.cashDeposit(accountNumber, DEFAULT_PIN, new BigDecimal("100.00"));
+
+        val closing = dailyBalanceRepository.findByAccountNumberAndBalanceDate(accountNumber, today).orElseThrow();
+        closing.setClosingBalance(new BigDecimal("5.00"));
+        dailyBalanceRepository.saveAndFlush(closing);
+        val opening = dailyBalanceRepository.findByAccountNumberAndBalanceDate(accountNumber, today.minusDays(1))
+                .orElseThrow();
+        opening.setClosingBalance(BigDecimal.ZERO);
+        dailyBalanceRepository.saveAndFlush(opening);
+
+        ledgerService.rebuildBalance(accountNumber);
+        entityManager.clear();
+
+        Assertions.assertEquals(0, new BigDecimal("500.00").compareTo(dailyBalanceRepository
+                .findByAccountNumberAndBalanceDate(accountNumber, today.minusDays(1)).orElseThrow().getClosingBalance()));
+        Assertions.assertEquals(0, new BigDecimal("600.00").compareTo(dailyBalanceRepository
+                .findByAccountNumberAndBalanceDate(accountNumber, today).orElseThrow().getClosingBalance()));
+        Assertions.assertEquals(0, new BigDecimal("500.00")
+                .compareTo(ledgerService.computeBalanceAsOf(accountNumber, today.atStartOfDay())));
+    }
+
+    @Test
+    public void test_checkpoint_lag_must_exceed_transaction_timeout() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new LedgerServiceImpl(ledgerEntryRepository,
+                balanceSnapshotRepository, dailyBalanceRepository, accountRepository, Duration.ofSeconds(30),
+                Duration.ofSeconds(30)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new LedgerServiceImpl(ledgerEntryRepository,
+                balanceSnapshotRepository, dailyBalanceRepository, accountRepository, Duration.ofMinutes(1), null));
+    }
+
+    /**
+     * Gives the account the opening snapshot and closing balance an account
+     * that existed before the ledger was migrated with.
+     */
+    private void openLedger(String accountNumber, BigDecimal balance) {
+        val snapshot = new BalanceSnapshot();
+        snapshot.setAccountNumber(accountNumber);
+        snapshot.setBalance(balance);
+        snapshot.setLastEntryId(0L);
+        snapshot.setCreatedAt(LocalDateTime.now());
+        balanceSnapshotRepository.save(snapshot);
+        dailyBalanceRepository.save(new DailyBalance(accountNumber, LocalDate.now().minusDays(1), balance));
+        accountRepository.updateBalance(accountNumber, balance);
+    }
+
+}
@@ -0,0 +1,140 @@
+package com.webapp.bankingportal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.webapp.bankingportal.config.AsyncConfig;
+import com.webapp.bankingportal.dto.LoginRequest;
+import com.webapp.bankingportal.util.ApiMessages;
+import com.webapp.bankingportal.util.JsonUtil;
+
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Logs in from several client threads at once while the GreenMail server
+ * stands in for SMTP. These tests commit for real, since the client threads
+ * cannot see the test's own transaction.
+ */
+@Slf4j
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class LoginNotificationTests extends BaseTest {
+
+    private static final int ACCOUNTS = 4;
+    private static final int CLIENTS = 4;
+    private static final int LOGINS_PER_CLIENT = 4;
+
+    @Autowired
+    @Qualifier(AsyncConfig.NOTIFICATION_EXECUTOR)
+    ThreadPoolTaskExecutor notificationExecutor;
+
+    @Autowired
+    @Qualifier(AsyncConfig.GEOLOCATION_EXECUTOR)
+    ThreadPoolTaskExecutor geolocationExecutor;
+
+    @Test
+    public void test_logins_do_not_wait_for_notifications() throws Exception {
+        val credentials = new ArrayList<String[]>();
+        val emails = new HashSet<String>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            val accountDetails = createAccount();
+            val accountNumber = accountDetails.get("accountNumber");
+            credentials.add(new String[] { accountNumber, accountDetails.get("password") });
+            emails.add(userRepository.findByAccountAccountNumber(accountNumber).orElseThrow().getEmail());
+        }
+
+        // Hold every notification thread, as a stalled mail server would
+        val gate = new CountDownLatch(1);
+        val held = new CountDownLatch(notificationExecutor.getMaxPoolSize());
+        for (int i = 0; i < notificationExecutor.getMaxPoolSize(); i++) {
+            notificationExecutor.execute(() -> {
+                held.countDown();
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        Assertions.assertTrue(held.await(5, TimeUnit.SECONDS));
+
+        val latencies = new ConcurrentLinkedQueue<Long>();
+        val clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            val results = new ArrayList<Future<?>>();
+            for (int client = 0; client < CLIENTS; client++) {
+                val first = client;
+                results.add(clients.submit(() -> {
+                    for (int i = 0; i < LOGINS_PER_CLIENT; i++) {
+                        val login = credentials.get((first + i * CLIENTS) % ACCOUNTS);
+                        val start = System.nanoTime();
+                        mockMvc.perform(MockMvcRequestBuilders
+                                .post("/api/users/login")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(JsonUtil.toJson(new LoginRequest(login[0], login[1]))))
+                                .andExpect(MockMvcResultMatchers.status().isOk());
+                        latencies.add(System.nanoTime() - start);
+                    }
+                    return null;
+                }));
+            }
+            for (val result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+
+            Assertions.assertEquals(0, countLoginEmails(emails));
+        } finally {
+            gate.countDown();
+            clients.shutdownNow();
+        }
+
+        val logins = CLIENTS * LOGINS_PER_CLIENT;
+        val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (countLoginEmails(emails) < logins && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        Assertions.assertEquals(logins, countLoginEmails(emails));
+
+        Assertions.assertTrue(notificationExecutor.getPoolSize() <= notificationExecutor.getMaxPoolSize());
+        Assertions.assertTrue(geolocationExecutor.getPoolSize() <= geolocationExecutor.getMaxPoolSize());
+
+        val sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        log.info("{} logins with notifications held: p50 {} ms, p99 {} ms, {} notification and {} geolocation threads",
+                logins, sorted[sorted.length / 2] / 1_000_000, sorted[sorted.length * 99 / 100] / 1_000_000,
+                notificationExecutor.getPoolSize(), geolocationExecutor.getPoolSize());
+    }
+
+    private static long countLoginEmails(HashSet<String> emails) throws MessagingException {
+        var count = 0L;
+        for (val message : GreenMailJavaMailSender.getReceivedMessages()) {
+            if (!ApiMessages.EMAIL_SUBJECT_LOGIN.getMessage().equals(message.getSubject())) {
+                continue;
+            }
+            val recipients = message.getRecipients(Message.RecipientType.TO);
+            if (recipients != null && Arrays.stream(recipients).anyMatch(r -> emails.contains(r.toString()))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.webapp.bankingportal;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.webapp.bankingportal.dto.LoginRequest;
+import com.webapp.bankingportal.service.IdentityService;
+import com.webapp.bankingportal.service.UserService;
+import com.webapp.bankingportal.util.JsonUtil;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.val;
+
+public class LoginTests extends BaseTest {
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    IdentityService identityService;
+
+    @Autowired
+    AuthenticationManager authenticationManager;
+
+    @Autowired
+    UserService userService;
+
+    @Test
+    public void test_login_reads_the_user_once() throws Exception {
+        val accountDetails = createAccount();
+        val accountNumber = accountDetails.get("accountNumber");
+        entityManager.flush();
+        entityManager.clear();
+
+        val statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        ThreadStatementCounter.start();
+        try {
+            login(accountNumber, accountDetails.get("password"))
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.token").exists());
+
+            // One select resolving the identifier and token epoch, and one insert for the token row
+            Assertions.assertEquals(2, ThreadStatementCounter.stop());
+            Assertions.assertEquals(0, statistics.getEntityLoadCount());
+        } finally {
+            ThreadStatementCounter.stop();
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    public void test_login_by_email() throws Exception {
+        val accountDetails = createAccount();
+        val email = userRepository.findByAccountAccountNumber(accountDetails.get("accountNumber"))
+                .orElseThrow().getEmail();
+
+        login(email, accountDetails.get("password"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.token").exists());
+    }
+
+    @Test
+    public void test_password_reset_evicts_cached_identity() {
+        val accountDetails = createAccount();
+        val accountNumber = accountDetails.get("accountNumber");
+        val newPassword = getRandomPassword();
+        identityService.resolve(accountNumber);
+        entityManager.flush();
+        entityManager.clear();
+
+        userService.resetPassword(userRepository.findByAccountAccountNumber(accountNumber).orElseThrow(), newPassword);
+
+        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(accountNumber, newPassword));
+        Assertions.assertThrows(BadCredentialsException.class, () -> authenticationManager
+                .authenticate(new UsernamePasswordAuthenticationToken(accountNumber, accountDetails.get("password"))));
+    }
+
+    private ResultActions login(String identifier, String password)
+            throws Exception {
+        return mockMvc.perform(MockMvcRequestBuilders
+                .post("/api/users/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonUtil.toJson(new LoginRequest(identifier, password))));
+    }
+
+}
@@ -0,0 +1,164 @@
+package com.webapp.bankingportal;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.webapp.bankingportal.dto.GeolocationResponse;
+import com.webapp.bankingportal.exception.GeolocationException;
+import com.webapp.bankingportal.service.GeolocationService;
+import com.webapp.bankingportal.service.impl.OfflineGeolocationService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.val;
+
+public class OfflineGeolocationServiceTests {
+
+    private static final String DATASET = """
+            ip_start,ip_end,continent,country,stateprov,city,latitude,longitude
+            1.0.0.0,1.0.0.255,OC,AU,Queensland,"South Brisbane",-27.4767,153.017
+            1.0.4.0,1.0.7.255,OC,AU,Victoria,Melbourne,-37.814,144.963
+            203.0.113.0,203.0.113.127,AS,IN,Maharashtra,Pune,18.5204,73.8567
+            255.255.255.0,255.255.255.255,ZZ,ZZ,,Broadcast,0,0
+            2001:db8::,2001:db8:0:ffff:ffff:ffff:ffff:ffff,AS,IN,Maharashtra,Pune,18.5204,73.8567
+            2001:db8:1::,2001:db8:1:ffff:ffff:ffff:ffff:ffff,EU,DE,Berlin,Berlin,52.52,13.405
+            """;
+
+    @TempDir
+    Path directory;
+
+    private Path dataset;
+    private AtomicInteger fallbackCalls;
+    private GeolocationService fallback;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        dataset = Files.writeString(directory.resolve("ranges.csv"), DATASET);
+        fallbackCalls = new AtomicInteger();
+        fallback = ip -> {
+            fallbackCalls.incrementAndGet();
+            return CompletableFuture.failedFuture(new GeolocationException("Not found"));
+        };
+    }
+
+    @Test
+    public void test_ipv4_ranges_are_resolved_at_their_bounds() throws Exception {
+        val service = new OfflineGeolocationService(dataset, true, fallback, new SimpleMeterRegistry());
+
+        Assertions.assertEquals("South Brisbane", city(service.locate("1.0.0.0")));
+        Assertions.assertEquals("South Brisbane", city(service.locate("1.0.0.255")));
+        Assertions.assertEquals("Melbourne", city(service.locate("1.0.4.0")));
+        Assertions.assertEquals("Melbourne", city(service.locate("1.0.7.255")));
+        Assertions.assertEquals("Broadcast", city(service.locate("255.255.255.255")));
+        Assertions.assertEquals("Pune", city(service.locate("::ffff:203.0.113.9")));
+
+        val response = service.getGeolocation("203.0.113.9").get();
+        Assertions.assertEquals("India", response.getCountry().getNames().get("en"));
+        Assertions.assertEquals(73.8567, response.getLocation().getLongitude());
+        Assertions.assertSame(response, service.locate("203.0.113.100"));
+    }
+
+    @Test
+    public void test_ipv6_ranges_are_resolved() throws Exception {
+        val service = new OfflineGeolocationService(dataset, true, fallback, new SimpleMeterRegistry());
+
+        Assertions.assertEquals("Pune", city(service.locate("2001:db8::1")));
+        Assertions.assertEquals("Pune", city(service.locate("2001:db8:0:ffff:ffff:ffff:ffff:ffff")));
+        Assertions.assertEquals("Berlin", city(service.locate("2001:db8:1:abcd::1")));
+        Assertions.assertNull(service.locate("2001:db8:2::1"));
+        Assertions.assertNull(service.locate("::1"));
+    }
+
+    @Test
+    public void test_uncovered_addresses_go_to_fallback() throws Exception {
+        val service = new OfflineGeolocationService(dataset, true, fallback, new SimpleMeterRegistry());
+
+        Assertions.assertNull(service.locate("1.0.1.0"));
+        Assertions.assertNull(service.locate("0.255.255.255"));
+        Assertions.assertNull(service.locate("203.0.113.128"));
+        Assertions.assertThrows(ExecutionException.class, () -> service.getGeolocation("1.0.1.0").get());
+        Assertions.assertEquals(1, fallbackCalls.get());
+    }
+
+    @Test
+    public void test_uncovered_addresses_fail_without_fallback() throws Exception {
+        val service = new OfflineGeolocationService(dataset, false, fallback, new SimpleMeterRegistry());
+
+        val exception = Assertions.assertThrows(ExecutionException.class,
+                () -> service.getGeolocation("1.0.1.0").get());
+        Assertions.assertInstanceOf(GeolocationException.class, exception.getCause());
+        Assertions.assertEquals(0, fallbackCalls.get());
+    }
+
+    @Test
+    public void test_invalid_addresses_are_not_resolved() throws Exception {
+        val service = new OfflineGeolocationService(dataset, true, fallback, new SimpleMeterRegistry());
+
+        for (val ip : new String[] { "", "1.0.0", "1.0.0.0.0", "1.0.0.256", "1..0.0", "example.com", "1.0.0.0 " }) {
+            Assertions.assertNull(service.locate(ip), ip);
+        }
+        Assertions.assertNull(service.locate(null));
+    }
+
+    @Test
+    public void test_ipv4_lookup_does_not_allocate() throws Exception {
+        val service = new OfflineGeolocationService(dataset, true, fallback, new SimpleMeterRegistry());
+        val threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        val threadId = Thread.currentThread().getId();
+        val ips = new String[] { "1.0.0.7", "1.0.5.1", "203.0.113.9", "9.9.9.9" };
+
+        for (int i = 0; i < 100_000; i++) {
+            service.locate(ips[i & 3]);
+        }
+        val before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 100_000; i++) {
+            service.locate(ips[i & 3]);
+        }
+        val allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // Any object per lookup would take at least 16 bytes each
+        Assertions.assertTrue(allocated < 100_000, "Allocated " + allocated + " bytes");
+    }
+
+    @Test
+    public void test_changed_file_is_reloaded() throws Exception {
+        val service = new OfflineGeolocationService(dataset, true, fallback, new SimpleMeterRegistry());
+        Assertions.assertNull(service.locate("8.8.8.8"));
+
+        Files.writeString(dataset, DATASET.replace("203.0.113.0,",
+                "8.8.8.0,8.8.8.255,NA,US,California,\"Mountain View\",37.386,-122.084\n203.0.113.0,"));
+        Files.setLastModifiedTime(dataset, FileTime.from(Instant.now().plusSeconds(60)));
+        service.reloadIfModified();
+
+        Assertions.assertEquals("Mountain View", city(service.locate("8.8.8.8")));
+        Assertions.assertEquals("Pune", city(service.locate("2001:db8::1")));
+    }
+
+    @Test
+    public void test_broken_file_keeps_loaded_ranges() throws Exception {
+        val service = new OfflineGeolocationService(dataset, true, fallback, new SimpleMeterRegistry());
+
+        Files.writeString(dataset, "1.0.4.0,1.0.7.255,OC,AU,Victoria,Melbourne\n1.0.0.0,1.0.0.255,OC,AU,Queensland,Brisbane\n");
+        Files.setLastModifiedTime(dataset, FileTime.from(Instant.now().plusSeconds(60)));
+        service.reloadIfModified();
+
+        Assertions.assertEquals("South Brisbane", city(service.locate("1.0.0.1")));
+        Assertions.assertThrows(IOException.class, service::reload);
+    }
+
+    private static String city(GeolocationResponse response) {
+        return response == null ? null : response.getCity().getNames().get("en");
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.webapp.bankingportal;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.webapp.bankingportal.exception.InvalidOtpException;
+import com.webapp.bankingportal.repository.OtpInfoRepository;
+import com.webapp.bankingportal.service.OtpService;
+import com.webapp.bankingportal.service.impl.DatabaseOtpStore;
+import com.webapp.bankingportal.service.impl.InMemoryOtpStore;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.val;
+
+public class OtpStoreTests extends BaseTest {
+
+    @Autowired
+    OtpService otpService;
+
+    @Autowired
+    OtpInfoRepository otpInfoRepository;
+
+    @Test
+    public void test_new_otp_replaces_previous_one() {
+        val accountNumber = createAccount().get("accountNumber");
+
+        val firstOtp = otpService.generateOTP(accountNumber);
+        Assertions.assertTrue(otpService.validateOTP(accountNumber, firstOtp));
+
+        val secondOtp = otpService.generateOTP(accountNumber);
+        Assertions.assertTrue(otpService.validateOTP(accountNumber, secondOtp));
+        if (!firstOtp.equals(secondOtp)) {
+            Assertions.assertThrows(InvalidOtpException.class, () -> otpService.validateOTP(accountNumber, firstOtp));
+        }
+    }
+
+    @Test
+    public void test_otp_of_another_account_is_rejected() {
+        val accountNumber = createAccount().get("accountNumber");
+        val otherAccountNumber = createAccount().get("accountNumber");
+
+        val otp = otpService.generateOTP(accountNumber);
+
+        Assertions.assertThrows(InvalidOtpException.class, () -> otpService.validateOTP(otherAccountNumber, otp));
+    }
+
+    @Test
+    public void test_in_memory_entries_expire_after_their_own_ttl() throws Exception {
+        val store = new InMemoryOtpStore(100, new SimpleMeterRegistry());
+
+        store.save("short", "hash", Duration.ofMillis(100));
+        store.save("long", "hash", Duration.ofMinutes(1));
+        Assertions.assertTrue(store.matches("short", "hash"));
+        Assertions.assertFalse(store.matches("short", "other"));
+
+        Thread.sleep(200);
+
+        Assertions.assertFalse(store.matches("short", "hash"));
+        Assertions.assertTrue(store.matches("long", "hash"));
+    }
+
+    @Test
+    public void test_database_store_keeps_one_row_per_account() {
+        val store = new DatabaseOtpStore(otpInfoRepository);
+        val accountNumber = getRandomAccountNumber();
+
+        store.save(accountNumber, "first", Duration.ofMinutes(1));
+        store.save(accountNumber, "second", Duration.ofMinutes(1));
+
+        Assertions.assertFalse(store.matches(accountNumber, "first"));
+        Assertions.assertTrue(store.matches(accountNumber, "second"));
+
+        store.save(accountNumber, "second", Duration.ofMinutes(-1));
+        Assertions.assertFalse(store.matches(accountNumber, "second"));
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.webapp.bankingportal;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.webapp.bankingportal.exception.TooManyRequestsException;
+import com.webapp.bankingportal.security.BoundedPasswordEncoder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.val;
+
+public class PasswordHashingTests extends BaseTest {
+
+    @Autowired
+    AuthenticationManager authenticationManager;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    public void test_password_is_verified_and_timed() {
+        val accountDetails = createAccount();
+        val timer = meterRegistry.get("password.hash").tag("operation", "matches").timer();
+        val before = timer.count();
+
+        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(
+                accountDetails.get("accountNumber"), accountDetails.get("password")));
+
+        Assertions.assertTrue(timer.count() > before);
+    }
+
+    @Test
+    public void test_hash_of_another_cost_is_reencoded_on_login() {
+        val accountDetails = createAccount();
+        val user = userRepository.findByAccountAccountNumber(accountDetails.get("accountNumber")).orElseThrow();
+        user.setPassword(new BCryptPasswordEncoder(4).encode(accountDetails.get("password")));
+        userRepository.save(user);
+
+        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(
+                accountDetails.get("accountNumber"), accountDetails.get("password")));
+
+        val rehashed = userRepository.findByAccountAccountNumber(accountDetails.get("accountNumber"))
+                .orElseThrow().getPassword();
+        Assertions.assertTrue(rehashed.startsWith("$2a$10$"));
+        Assertions.assertFalse(passwordEncoder.upgradeEncoding(rehashed));
+        Assertions.assertTrue(passwordEncoder.matches(accountDetails.get("password"), rehashed));
+    }
+
+    @Test
+    public void test_saturated_encoder_fails_fast() throws Exception {
+        val executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.initialize();
+        val encoder = new BoundedPasswordEncoder(12, executor, new SimpleMeterRegistry());
+        val hash = encoder.encode("password");
+        val callers = Executors.newFixedThreadPool(6);
+        try {
+            val start = new CountDownLatch(1);
+            val results = new ArrayList<Future<Boolean>>();
+            for (int i = 0; i < 6; i++) {
+                results.add(callers.submit(() -> {
+                    start.await();
+                    return encoder.matches("password", hash);
+                }));
+            }
+            start.countDown();
+
+            var rejected = 0;
+            for (val result : results) {
+                try {
+                    Assertions.assertTrue(result.get());
+                } catch (ExecutionException e) {
+                    Assertions.assertInstanceOf(TooManyRequestsException.class, e.getCause());
+                    rejected++;
+                }
+            }
+            Assertions.assertTrue(rejected > 0);
+        } finally {
+            callers.shutdownNow();
+            executor.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,128 @@
+package com.webapp.bankingportal;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.webapp.bankingportal.exception.OtpRetryLimitExceededException;
+import com.webapp.bankingportal.repository.RateLimitRepository;
+import com.webapp.bankingportal.service.OtpService;
+import com.webapp.bankingportal.service.OtpServiceImpl;
+import com.webapp.bankingportal.service.impl.DatabaseRateLimitStore;
+import com.webapp.bankingportal.service.impl.InMemoryRateLimitStore;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.val;
+
+public class RateLimitStoreTests extends BaseTest {
+
+    @Autowired
+    OtpService otpService;
+
+    @Autowired
+    RateLimitRepository rateLimitRepository;
+
+    @Test
+    public void test_otp_limit_is_per_account() {
+        val accountNumber = createAccount().get("accountNumber");
+        val otherAccountNumber = createAccount().get("accountNumber");
+
+        for (int i = 0; i < OtpServiceImpl.OTP_ATTEMPTS_LIMIT; i++) {
+            otpService.generateOTP(accountNumber);
+        }
+
+        Assertions.assertThrows(OtpRetryLimitExceededException.class, () -> otpService.generateOTP(accountNumber));
+        Assertions.assertNotNull(otpService.generateOTP(otherAccountNumber));
+    }
+
+    @Test
+    public void test_window_opens_with_first_hit_and_closes_after_duration() throws Exception {
+        val store = new InMemoryRateLimitStore(4, 16, Duration.ofMillis(10), 8, new SimpleMeterRegistry());
+        val window = Duration.ofMillis(200);
+
+        Assertions.assertEquals(0, store.tryAcquire("a", 2, window));
+        Assertions.assertEquals(0, store.tryAcquire("a", 2, window));
+        val waitMillis = store.tryAcquire("a", 2, window);
+        Assertions.assertTrue(waitMillis > 0 && waitMillis <= 200);
+        Assertions.assertEquals(0, store.tryAcquire("b", 2, window));
+
+        Thread.sleep(250);
+
+        Assertions.assertEquals(0, store.tryAcquire("a", 2, window));
+    }
+
+    @Test
+    public void test_timing_wheel_drops_closed_windows() throws Exception {
+        val store = new InMemoryRateLimitStore(4, 16, Duration.ofMillis(10), 8, new SimpleMeterRegistry());
+        for (int i = 0; i < 10_000; i++) {
+            store.tryAcquire("key-" + i, 1, Duration.ofMillis(i % 2 == 0 ? 50 : 60_000));
+        }
+        Assertions.assertEquals(10_000, store.size());
+
+        Thread.sleep(100);
+
+        Assertions.assertEquals(5_000, store.expire());
+        Assertions.assertEquals(5_000, store.size());
+        for (int i = 0; i < 10_000; i++) {
+            // Keys left behind must still be found after the others were shifted out of their probe runs
+            Assertions.assertEquals(i % 2 == 0, store.tryAcquire("key-" + i, 1, Duration.ofMinutes(1)) == 0);
+        }
+    }
+
+    @Test
+    public void test_closed_window_is_dropped_by_the_tick_after_its_deadline() throws Exception {
+        val tick = 100;
+        val store = new InMemoryRateLimitStore(4, 16, Duration.ofMillis(tick), 64, new SimpleMeterRegistry());
+
+        // Open the window mid-tick, so its deadline falls between two ticks
+        while (System.currentTimeMillis() % tick < 40 || System.currentTimeMillis() % tick > 60) {
+            Thread.sleep(1);
+        }
+        val deadline = System.currentTimeMillis() + 200;
+        store.tryAcquire("a", 1, Duration.ofMillis(200));
+
+        // The wheel reaches the tick holding the deadline before the window has closed
+        sleepUntil(deadline / tick * tick);
+        store.expire();
+        Assertions.assertEquals(1, store.size());
+
+        sleepUntil((deadline / tick + 1) * tick);
+        store.expire();
+        Assertions.assertEquals(0, store.size());
+    }
+
+    @Test
+    public void test_reset_clears_window() {
+        val store = new InMemoryRateLimitStore(4, 16, Duration.ofMillis(10), 8, new SimpleMeterRegistry());
+
+        store.tryAcquire("a", 1, Duration.ofMinutes(1));
+        Assertions.assertTrue(store.tryAcquire("a", 1, Duration.ofMinutes(1)) > 0);
+
+        store.reset("a");
+        Assertions.assertEquals(0, store.tryAcquire("a", 1, Duration.ofMinutes(1)));
+    }
+
+    @Test
+    public void test_database_store_shares_windows_through_table() {
+        val store = new DatabaseRateLimitStore(rateLimitRepository);
+        val key = "test:" + getRandomAccountNumber();
+
+        Assertions.assertEquals(0, store.tryAcquire(key, 2, Duration.ofMinutes(1)));
+        Assertions.assertEquals(0, store.tryAcquire(key, 2, Duration.ofMinutes(1)));
+        val waitMillis = store.tryAcquire(key, 2, Duration.ofMinutes(1));
+        Assertions.assertTrue(waitMillis > 0 && waitMillis <= 60_000);
+
+        store.reset(key);
+        Assertions.assertEquals(0, store.tryAcquire(key, 2, Duration.ofMinutes(1)));
+    }
+
+    private static void sleepUntil(long millis) throws InterruptedException {
+        val wait = millis - System.currentTimeMillis();
+        if (wait > 0) {
+            Thread.sleep(wait);
+        }
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.webapp.bankingportal;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.webapp.bankingportal.service.LedgerService;
+import com.webapp.bankingportal.service.impl.AccountServiceImpl;
+import com.webapp.bankingportal.service.impl.ShardedAccountService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import lombok.val;
+
+/**
+ * Runs the concurrency suite against the sharded execution mode. Its
+ * throughput on a hot account is compared with the transactional path by
+ * {@link HotAccountBenchmark}.
+ */
+public class ShardedAccountServiceTests extends AccountServiceConcurrencyTests {
+
+    private static final int SHARDS = 4;
+    private static final int PAYERS = THREADS;
+
+    @Autowired
+    AccountServiceImpl accountServiceImpl;
+
+    @Autowired
+    LedgerService ledgerService;
+
+    ShardedAccountService shardedAccountService;
+
+    @BeforeEach
+    public void setUpShards() {
+        shardedAccountService = new ShardedAccountService(accountServiceImpl, SHARDS, 10_000, new SimpleMeterRegistry());
+        accountService = shardedAccountService;
+    }
+
+    @AfterEach
+    public void tearDownShards() {
+        shardedAccountService.shutdown();
+    }
+
+    @Test
+    public void test_cross_shard_opposite_transfers_do_not_deadlock() throws Exception {
+        val firstAccountNumber = createAccount().get("accountNumber");
+        var secondAccountNumber = createAccount().get("accountNumber");
+        while (shardedAccountService.shardIndex(firstAccountNumber) == shardedAccountService.shardIndex(secondAccountNumber)) {
+            secondAccountNumber = createAccount().get("accountNumber");
+        }
+
+        val initialBalance = new BigDecimal("1000.00");
+        accountService.cashDeposit(firstAccountNumber, DEFAULT_PIN, initialBalance);
+        accountService.cashDeposit(secondAccountNumber, DEFAULT_PIN, initialBalance);
+
+        val otherAccountNumber = secondAccountNumber;
+        val counter = new AtomicInteger();
+        runConcurrently(() -> {
+            if (counter.getAndIncrement() % 2 == 0) {
+                accountService.fundTransfer(firstAccountNumber, otherAccountNumber, BigDecimal.ONE, DEFAULT_PIN);
+            } else {
+                accountService.fundTransfer(otherAccountNumber, firstAccountNumber, BigDecimal.ONE, DEFAULT_PIN);
+            }
+        });
+
+        val total = getBalance(firstAccountNumber).add(getBalance(otherAccountNumber));
+        Assertions.assertEquals(0, initialBalance.add(initialBalance).compareTo(total));
+    }
+
+    @Test
+    public void test_hot_account_transfers_keep_balances_and_ledger_in_step() throws Exception {
+        val merchantAccountNumber = createAccount().get("accountNumber");
+        val payerAccountNumbers = new ArrayList<String>();
+        for (int i = 0; i < PAYERS; i++) {
+            val payerAccountNumber = createAccount().get("accountNumber");
+            accountService.cashDeposit(payerAccountNumber, DEFAULT_PIN, new BigDecimal("1000.00"));
+            payerAccountNumbers.add(payerAccountNumber);
+        }
+
+        // Every thread pays into the same merchant account from its own payer account
+        val next = new AtomicInteger();
+        val threadPayer = ThreadLocal.withInitial(
+                () -> payerAccountNumbers.get(next.getAndIncrement() % PAYERS));
+        runConcurrently(() -> accountService.fundTransfer(
+                threadPayer.get(), merchantAccountNumber, BigDecimal.ONE, DEFAULT_PIN));
+
+        Assertions.assertEquals(0, BigDecimal.valueOf(THREADS * OPERATIONS_PER_THREAD)
+                .compareTo(getBalance(merchantAccountNumber)));
+        Assertions.assertTrue(ledgerService.verifyBalance(merchantAccountNumber));
+        for (val payerAccountNumber : payerAccountNumbers) {
+            Assertions.assertEquals(0, new BigDecimal("1000.00").subtract(BigDecimal.valueOf(OPERATIONS_PER_THREAD))
+                    .compareTo(getBalance(payerAccountNumber)));
+            Assertions.assertTrue(ledgerService.verifyBalance(payerAccountNumber));
+        }
+    }
+
+}
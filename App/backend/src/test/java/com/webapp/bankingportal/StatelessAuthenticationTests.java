@@ -0,0 +1,94 @@
+package com.webapp.bankingportal;
+
+import java.util.Date;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.webapp.bankingportal.repository.TokenRepository;
+import com.webapp.bankingportal.security.JwtPrincipal;
+import com.webapp.bankingportal.service.TokenServiceImpl;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import lombok.val;
+
+/**
+ * Switches the shared context to stateless authentication for each test
+ * rather than starting a second context against the same database.
+ */
+public class StatelessAuthenticationTests extends BaseTest {
+
+    @Autowired
+    TokenRepository tokenRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private Object previousMode;
+
+    @BeforeEach
+    public void useStatelessAuthentication() {
+        previousMode = ReflectionTestUtils.getField(tokenServiceImpl(), "authenticationMode");
+        ReflectionTestUtils.setField(tokenServiceImpl(), "authenticationMode", TokenServiceImpl.STATELESS_AUTHENTICATION);
+    }
+
+    @AfterEach
+    public void restoreAuthenticationMode() {
+        ReflectionTestUtils.setField(tokenServiceImpl(), "authenticationMode", previousMode);
+    }
+
+    private TokenServiceImpl tokenServiceImpl() {
+        return AopTestUtils.getTargetObject(tokenService);
+    }
+
+    @Test
+    public void test_principal_is_built_from_claims_without_database_reads() throws Exception {
+        val accountNumber = createAccount().get("accountNumber");
+        val token = generateToken(accountNumber, getRandomPassword());
+
+        val statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            val principal = tokenService.authenticate(token);
+
+            Assertions.assertInstanceOf(JwtPrincipal.class, principal);
+            Assertions.assertEquals(accountNumber, principal.getUsername());
+            Assertions.assertNotNull(((JwtPrincipal) principal).getTokenId());
+            Assertions.assertEquals(0, statistics.getPrepareStatementCount());
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    public void test_request_is_authenticated_without_token_row() throws Exception {
+        val userDetails = createAndLoginUser();
+        tokenRepository.deleteByToken(userDetails.get("token"));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                .get("/api/account/pin/check")
+                .header("Authorization", "Bearer " + userDetails.get("token")))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    @Test
+    public void test_expired_token_is_rejected() throws Exception {
+        val token = generateToken(getRandomAccountNumber(), getRandomPassword(), new Date());
+
+        mockMvc.perform(MockMvcRequestBuilders
+                .get("/api/account/pin/check")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+    }
+
+}
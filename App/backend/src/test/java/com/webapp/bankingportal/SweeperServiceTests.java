@@ -0,0 +1,172 @@
+package com.webapp.bankingportal;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.webapp.bankingportal.entity.EmailOutbox;
+import com.webapp.bankingportal.entity.OtpInfo;
+import com.webapp.bankingportal.entity.PasswordResetToken;
+import com.webapp.bankingportal.entity.Token;
+import com.webapp.bankingportal.enums.EmailStatus;
+import com.webapp.bankingportal.repository.AccountRepository;
+import com.webapp.bankingportal.repository.EmailOutboxRepository;
+import com.webapp.bankingportal.repository.OtpInfoRepository;
+import com.webapp.bankingportal.repository.PasswordResetTokenRepository;
+import com.webapp.bankingportal.repository.SchedulerLeaseRepository;
+import com.webapp.bankingportal.repository.TokenRepository;
+import com.webapp.bankingportal.service.LeaseService;
+import com.webapp.bankingportal.service.SweeperService;
+
+import lombok.val;
+
+public class SweeperServiceTests extends BaseTest {
+
+    private static final String LEASE_NAME = "expired-data-sweeper";
+
+    @Autowired
+    SweeperService sweeperService;
+
+    @Autowired
+    LeaseService leaseService;
+
+    @Autowired
+    SchedulerLeaseRepository schedulerLeaseRepository;
+
+    @Autowired
+    TokenRepository tokenRepository;
+
+    @Autowired
+    OtpInfoRepository otpInfoRepository;
+
+    @Autowired
+    PasswordResetTokenRepository passwordResetTokenRepository;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    ThreadPoolTaskScheduler taskScheduler;
+
+    @Test
+    public void test_sweep_deletes_expired_rows_only() {
+        val now = System.currentTimeMillis();
+        val expiredAccount = accountRepository.findByAccountNumber(createAccount().get("accountNumber")).orElseThrow();
+        val freshAccount = accountRepository.findByAccountNumber(createAccount().get("accountNumber")).orElseThrow();
+
+        val expiredToken = tokenRepository.save(new Token(getRandomPassword(), new Date(now - 60_000), expiredAccount));
+        val freshToken = tokenRepository.save(new Token(getRandomPassword(), new Date(now + 60_000), freshAccount));
+        val expiredOtp = otpInfoRepository.save(
+                new OtpInfo(expiredAccount.getAccountNumber(), getRandomOtp(), LocalDateTime.now().minusHours(1),
+                        LocalDateTime.now().minusMinutes(55)));
+        val freshOtp = otpInfoRepository.save(
+                new OtpInfo(freshAccount.getAccountNumber(), getRandomOtp(), LocalDateTime.now().minusMinutes(1),
+                        LocalDateTime.now().plusMinutes(4)));
+        val expiredResetToken = passwordResetTokenRepository.save(new PasswordResetToken(getRandomPassword(),
+                expiredAccount.getUser(), LocalDateTime.now().minusMinutes(1)));
+        val freshResetToken = passwordResetTokenRepository.save(new PasswordResetToken(getRandomPassword(),
+                freshAccount.getUser(), LocalDateTime.now().plusMinutes(1)));
+        val oldDeadEmail = deadEmail(LocalDateTime.now().minusDays(8));
+        val recentDeadEmail = deadEmail(LocalDateTime.now().minusDays(1));
+        tokenRepository.flush();
+
+        Assertions.assertTrue(sweeperService.sweep() >= 4);
+
+        Assertions.assertFalse(tokenRepository.existsById(expiredToken.getId()));
+        Assertions.assertTrue(tokenRepository.existsById(freshToken.getId()));
+        Assertions.assertFalse(otpInfoRepository.existsById(expiredOtp.getId()));
+        Assertions.assertTrue(otpInfoRepository.existsById(freshOtp.getId()));
+        Assertions.assertFalse(passwordResetTokenRepository.existsById(expiredResetToken.getId()));
+        Assertions.assertTrue(passwordResetTokenRepository.existsById(freshResetToken.getId()));
+        Assertions.assertFalse(emailOutboxRepository.existsById(oldDeadEmail.getId()));
+        Assertions.assertTrue(emailOutboxRepository.existsById(recentDeadEmail.getId()));
+    }
+
+    @Test
+    public void test_sweep_is_skipped_while_another_instance_holds_the_lease() {
+        val account = accountRepository.findByAccountNumber(createAccount().get("accountNumber")).orElseThrow();
+        val expiredToken = tokenRepository.save(
+                new Token(getRandomPassword(), new Date(System.currentTimeMillis() - 60_000), account));
+        tokenRepository.flush();
+
+        inNewTransaction(() -> {
+            schedulerLeaseRepository.insertIfAbsent(LEASE_NAME);
+            Assertions.assertEquals(1, schedulerLeaseRepository.acquire(LEASE_NAME, "other-instance", 60));
+        });
+        try {
+            Assertions.assertEquals(0, sweeperService.sweep());
+            Assertions.assertTrue(tokenRepository.existsById(expiredToken.getId()));
+        } finally {
+            inNewTransaction(() -> schedulerLeaseRepository.release(LEASE_NAME, "other-instance"));
+        }
+
+        Assertions.assertTrue(leaseService.tryAcquire(LEASE_NAME, Duration.ofSeconds(60)));
+        leaseService.release(LEASE_NAME);
+    }
+
+    @Test
+    public void test_sweep_stops_once_the_lease_is_lost() {
+        val account = accountRepository.findByAccountNumber(createAccount().get("accountNumber")).orElseThrow();
+        for (int i = 0; i < 3; i++) {
+            tokenRepository.save(new Token(getRandomPassword(), new Date(System.currentTimeMillis() - 60_000), account));
+        }
+        tokenRepository.flush();
+
+        // Taking the lease and renewing it for the first batch succeed, then another instance takes over
+        val renewals = new AtomicInteger();
+        val sweeper = AopTestUtils.getTargetObject(sweeperService);
+        val batchSize = ReflectionTestUtils.getField(sweeper, "batchSize");
+        ReflectionTestUtils.setField(sweeper, "batchSize", 1);
+        ReflectionTestUtils.setField(sweeper, "leaseService", new LeaseService() {
+            @Override
+            public boolean tryAcquire(String name, Duration duration) {
+                return renewals.incrementAndGet() <= 2;
+            }
+
+            @Override
+            public void release(String name) {
+            }
+        });
+        try {
+            Assertions.assertEquals(1, sweeperService.sweep());
+        } finally {
+            ReflectionTestUtils.setField(sweeper, "batchSize", batchSize);
+            ReflectionTestUtils.setField(sweeper, "leaseService", leaseService);
+        }
+    }
+
+    @Test
+    public void test_sweep_does_not_hold_the_only_scheduling_thread() {
+        Assertions.assertTrue(taskScheduler.getScheduledThreadPoolExecutor().getCorePoolSize() > 1);
+    }
+
+    private void inNewTransaction(Runnable action) {
+        val transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transactionTemplate.executeWithoutResult(status -> action.run());
+    }
+
+    private EmailOutbox deadEmail(LocalDateTime createdAt) {
+        val email = new EmailOutbox("dead@example.com", "Subject", "", null, createdAt);
+        email.setStatus(EmailStatus.DEAD);
+        return emailOutboxRepository.save(email);
+    }
+
+}
@@ -1,8 +1,11 @@
 package com.webapp.bankingportal;
 
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.mail.javamail.JavaMailSender;
 
 import com.webapp.bankingportal.service.EmailService;
 import com.webapp.bankingportal.service.EmailServiceImpl;
@@ -10,9 +13,20 @@ import com.webapp.bankingportal.service.EmailServiceImpl;
 @Configuration
 public class TestConfig {
 
+    @Bean
+    public HibernatePropertiesCustomizer statementCounter() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new ThreadStatementCounter());
+    }
+
+    @Bean
+    @Primary
+    public JavaMailSender javaMailSender() {
+        return new GreenMailJavaMailSender();
+    }
+
     @Bean
     @Primary
-    public EmailService emailService() {
-        return new EmailServiceImpl(new GreenMailJavaMailSender());
+    public EmailService emailService(JavaMailSender javaMailSender) {
+        return new EmailServiceImpl(javaMailSender);
     }
 }
@@ -0,0 +1,34 @@
+package com.webapp.bankingportal;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import lombok.val;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread, so
+ * tests are not thrown off by scheduled jobs running meanwhile.
+ */
+public class ThreadStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> counts = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        val count = counts.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    public static void start() {
+        counts.set(new int[1]);
+    }
+
+    public static int stop() {
+        val count = counts.get();
+        counts.remove();
+        return count == null ? 0 : count[0];
+    }
+
+}
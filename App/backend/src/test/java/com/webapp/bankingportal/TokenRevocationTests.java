@@ -0,0 +1,116 @@
+package com.webapp.bankingportal;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.webapp.bankingportal.entity.RevokedToken;
+import com.webapp.bankingportal.exception.InvalidTokenException;
+import com.webapp.bankingportal.repository.RevokedTokenRepository;
+import com.webapp.bankingportal.repository.TokenRepository;
+import com.webapp.bankingportal.security.JwtPrincipal;
+import com.webapp.bankingportal.service.TokenRevocationService;
+import com.webapp.bankingportal.service.TokenServiceImpl;
+
+import lombok.val;
+
+public class TokenRevocationTests extends BaseTest {
+
+    @Autowired
+    TokenRepository tokenRepository;
+
+    @Autowired
+    RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    TokenRevocationService tokenRevocationService;
+
+    private Object previousMode;
+
+    @BeforeEach
+    public void useRevocationAuthentication() {
+        previousMode = ReflectionTestUtils.getField(tokenServiceImpl(), "authenticationMode");
+        ReflectionTestUtils.setField(tokenServiceImpl(), "authenticationMode", TokenServiceImpl.REVOCATION_AUTHENTICATION);
+    }
+
+    @AfterEach
+    public void restoreAuthenticationMode() {
+        ReflectionTestUtils.setField(tokenServiceImpl(), "authenticationMode", previousMode);
+    }
+
+    @Test
+    public void test_login_does_not_store_token() throws Exception {
+        val userDetails = createAndLoginUser();
+
+        Assertions.assertNull(tokenRepository.findByToken(userDetails.get("token")));
+        mockMvc.perform(MockMvcRequestBuilders
+                .get("/api/account/pin/check")
+                .header("Authorization", "Bearer " + userDetails.get("token")))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    @Test
+    public void test_invalidated_token_is_denied() throws Exception {
+        val token = generateToken(createAccount().get("accountNumber"), getRandomPassword());
+        val tokenId = ((JwtPrincipal) tokenService.authenticate(token)).getTokenId();
+
+        tokenService.invalidateToken(token);
+
+        Assertions.assertTrue(revokedTokenRepository.existsById(tokenId));
+        Assertions.assertThrows(InvalidTokenException.class, () -> tokenService.authenticate(token));
+    }
+
+    @Test
+    public void test_invalidate_all_tokens_revokes_earlier_tokens_only() throws Exception {
+        val accountNumber = createAccount().get("accountNumber");
+        val first = generateToken(accountNumber, getRandomPassword());
+        val second = generateToken(accountNumber, getRandomPassword());
+        tokenService.authenticate(first);
+        tokenService.authenticate(second);
+
+        tokenService.invalidateAllTokens(accountNumber);
+
+        Assertions.assertThrows(InvalidTokenException.class, () -> tokenService.authenticate(first));
+        Assertions.assertThrows(InvalidTokenException.class, () -> tokenService.authenticate(second));
+        Assertions.assertEquals(accountNumber,
+                tokenService.authenticate(generateToken(accountNumber, getRandomPassword())).getUsername());
+    }
+
+    @Test
+    public void test_login_after_invalidate_all_tokens_carries_the_new_epoch() throws Exception {
+        val accountNumber = createAccount().get("accountNumber");
+        // Caches the identity along with the epoch it was read at
+        tokenService.authenticate(tokenService.generateAndSaveToken(accountNumber));
+
+        tokenService.invalidateAllTokens(accountNumber);
+
+        Assertions.assertEquals(accountNumber,
+                tokenService.authenticate(tokenService.generateAndSaveToken(accountNumber)).getUsername());
+    }
+
+    @Test
+    public void test_sync_picks_up_revocations_of_other_instances() throws Exception {
+        val accountNumber = createAccount().get("accountNumber");
+        val token = generateToken(accountNumber, getRandomPassword());
+        val tokenId = ((JwtPrincipal) tokenService.authenticate(token)).getTokenId();
+
+        revokedTokenRepository.save(new RevokedToken(tokenId, accountNumber, LocalDateTime.now(),
+                LocalDateTime.now().plusHours(1)));
+        Assertions.assertTrue(tokenRevocationService.sync() > 0);
+
+        Assertions.assertThrows(InvalidTokenException.class, () -> tokenService.authenticate(token));
+    }
+
+    private TokenServiceImpl tokenServiceImpl() {
+        return AopTestUtils.getTargetObject(tokenService);
+    }
+
+}
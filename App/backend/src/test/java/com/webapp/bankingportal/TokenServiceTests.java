@@ -1,14 +1,18 @@
 package com.webapp.bankingportal;
 
+import java.time.Duration;
 import java.util.Date;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.webapp.bankingportal.exception.InvalidTokenException;
 import com.webapp.bankingportal.repository.TokenRepository;
+import com.webapp.bankingportal.service.TokenServiceImpl;
 import com.webapp.bankingportal.util.ApiMessages;
 
 import io.jsonwebtoken.Jwts;
@@ -37,6 +41,49 @@ public class TokenServiceTests extends BaseTest {
                 ApiMessages.TOKEN_NOT_FOUND_ERROR.getMessage());
     }
 
+    @Test
+    public void test_authenticate_is_served_from_cache_until_invalidated() throws Exception {
+        val userDetails = createAndLoginUser();
+        val token = userDetails.get("token");
+
+        Assertions.assertEquals(userDetails.get("accountNumber"), tokenService.authenticate(token).getUsername());
+
+        // A cached token no longer needs its row
+        tokenRepository.deleteByToken(token);
+        Assertions.assertEquals(userDetails.get("accountNumber"), tokenService.authenticate(token).getUsername());
+
+        tokenService.invalidateToken(token);
+        Assertions.assertThrows(InvalidTokenException.class, () -> tokenService.authenticate(token));
+    }
+
+    @Test
+    public void test_cached_token_is_checked_again_after_ttl() throws Exception {
+        val userDetails = createAndLoginUser();
+        val token = userDetails.get("token");
+        TokenServiceImpl target = AopTestUtils.getTargetObject(tokenService);
+        val previousTtl = ReflectionTestUtils.getField(target, "cacheTtl");
+        ReflectionTestUtils.setField(target, "cacheTtl", Duration.ofMillis(100));
+
+        try {
+            Assertions.assertEquals(userDetails.get("accountNumber"), tokenService.authenticate(token).getUsername());
+
+            // Another instance logs the token out, which this one only sees in the database
+            tokenRepository.deleteByToken(token);
+            Thread.sleep(300);
+
+            Assertions.assertThrows(InvalidTokenException.class, () -> tokenService.authenticate(token));
+        } finally {
+            ReflectionTestUtils.setField(target, "cacheTtl", previousTtl);
+        }
+    }
+
+    @Test
+    public void test_authenticate_with_unknown_token() throws Exception {
+        val token = generateToken(getRandomAccountNumber(), getRandomPassword());
+
+        Assertions.assertThrows(InvalidTokenException.class, () -> tokenService.authenticate(token));
+    }
+
     @Test
     public void test_invalidate_token_with_valid_token() throws Exception {
         val token = createAndLoginUser().get("token");
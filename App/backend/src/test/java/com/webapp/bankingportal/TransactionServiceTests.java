@@ -0,0 +1,179 @@
+package com.webapp.bankingportal;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.webapp.bankingportal.dto.TransactionDTO;
+import com.webapp.bankingportal.dto.TransactionFilter;
+import com.webapp.bankingportal.entity.TransactionType;
+import com.webapp.bankingportal.service.TransactionService;
+import com.webapp.bankingportal.service.TransactionServiceImpl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+import lombok.val;
+
+public class TransactionServiceTests extends BaseTest {
+
+    private static final String DEFAULT_PIN = "0000";
+
+    @Autowired
+    TransactionService transactionService;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Test
+    public void test_pages_cover_history_once_newest_first() {
+        val accountNumber = createAccountWithHistory(5, 2);
+
+        val seen = new ArrayList<TransactionDTO>();
+        String cursor = null;
+        do {
+            val page = transactionService.getTransactions(accountNumber, new TransactionFilter(cursor, 3, null, null, null));
+            Assertions.assertTrue(page.transactions().size() <= 3);
+            seen.addAll(page.transactions());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        Assertions.assertEquals(7, seen.size());
+        Assertions.assertEquals(7, new HashSet<>(seen.stream().map(TransactionDTO::getId).toList()).size());
+        for (int i = 1; i < seen.size(); i++) {
+            val previous = seen.get(i - 1);
+            val current = seen.get(i);
+            Assertions.assertTrue(previous.getTransactionDate().compareTo(current.getTransactionDate()) > 0
+                    || (previous.getTransactionDate().equals(current.getTransactionDate())
+                            && previous.getId() > current.getId()));
+        }
+    }
+
+    @Test
+    public void test_last_page_has_no_cursor() {
+        val accountNumber = createAccountWithHistory(2, 0);
+
+        val page = transactionService.getTransactions(accountNumber, new TransactionFilter(null, 2, null, null, null));
+
+        Assertions.assertEquals(2, page.transactions().size());
+        Assertions.assertNull(page.nextCursor());
+    }
+
+    @Test
+    public void test_whole_history_without_cursor_or_limit() {
+        val accountNumber = createAccountWithHistory(TransactionServiceImpl.DEFAULT_PAGE_SIZE + 1, 0);
+
+        val page = transactionService.getTransactions(accountNumber, new TransactionFilter(null, null, null, null, null));
+
+        Assertions.assertEquals(TransactionServiceImpl.DEFAULT_PAGE_SIZE + 1, page.transactions().size());
+        Assertions.assertNull(page.nextCursor());
+    }
+
+    @Test
+    public void test_type_filter() {
+        val accountNumber = createAccountWithHistory(3, 2);
+
+        val page = transactionService.getTransactions(accountNumber,
+                new TransactionFilter(null, null, null, null, TransactionType.CASH_WITHDRAWAL));
+
+        Assertions.assertEquals(2, page.transactions().size());
+        page.transactions().forEach(t -> Assertions.assertEquals(TransactionType.CASH_WITHDRAWAL, t.getTransactionType()));
+    }
+
+    @Test
+    public void test_date_range_filter() {
+        val accountNumber = createAccountWithHistory(2, 0);
+        val past = new Date(System.currentTimeMillis() - 86_400_000L);
+
+        Assertions.assertEquals(2, transactionService.getTransactions(accountNumber,
+                new TransactionFilter(null, null, past, null, null)).transactions().size());
+        Assertions.assertEquals(0, transactionService.getTransactions(accountNumber,
+                new TransactionFilter(null, null, null, past, null)).transactions().size());
+    }
+
+    @Test
+    public void test_transfer_is_listed_for_both_accounts() {
+        val sourceAccountNumber = createAccountWithHistory(1, 0);
+        val targetAccountNumber = createAccount().get("accountNumber");
+        accountService.fundTransfer(sourceAccountNumber, targetAccountNumber, BigDecimal.ONE, DEFAULT_PIN);
+
+        val page = transactionService.getTransactions(targetAccountNumber, new TransactionFilter(null, null, null, null, null));
+
+        Assertions.assertEquals(1, page.transactions().size());
+        Assertions.assertEquals(sourceAccountNumber, page.transactions().get(0).getSourceAccountNumber());
+        Assertions.assertEquals(targetAccountNumber, page.transactions().get(0).getTargetAccountNumber());
+    }
+
+    @Test
+    public void test_invalid_cursor() {
+        val accountNumber = createAccount().get("accountNumber");
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> transactionService
+                .getTransactions(accountNumber, new TransactionFilter("not-a-cursor", null, null, null, null)));
+    }
+
+    @Test
+    public void test_invalid_limit() {
+        val accountNumber = createAccount().get("accountNumber");
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> transactionService
+                .getTransactions(accountNumber, new TransactionFilter(null, 0, null, null, null)));
+    }
+
+    @Test
+    public void test_page_is_read_with_a_single_query_and_no_entities() {
+        val accountNumber = createAccountWithHistory(3, 1);
+        val targetAccountNumber = createAccount().get("accountNumber");
+        accountService.fundTransfer(accountNumber, targetAccountNumber, BigDecimal.ONE, DEFAULT_PIN);
+        entityManager.flush();
+        entityManager.clear();
+
+        val statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            val page = transactionService.getTransactions(accountNumber, new TransactionFilter(null, null, null, null, null));
+
+            Assertions.assertEquals(5, page.transactions().size());
+            Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+            Assertions.assertEquals(0, statistics.getEntityLoadCount());
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    public void test_export_streams_whole_filtered_history_newest_first() {
+        val accountNumber = createAccountWithHistory(3, 2);
+
+        val exported = new ArrayList<TransactionDTO>();
+        val count = transactionService.exportTransactions(accountNumber,
+                new TransactionFilter("ignored", 1, null, null, TransactionType.CASH_DEPOSIT), exported::add);
+
+        Assertions.assertEquals(3, count);
+        Assertions.assertEquals(3, exported.size());
+        exported.forEach(t -> Assertions.assertEquals(TransactionType.CASH_DEPOSIT, t.getTransactionType()));
+        Assertions.assertTrue(exported.get(0).getId() > exported.get(2).getId());
+    }
+
+    private String createAccountWithHistory(int deposits, int withdrawals) {
+        val accountNumber = createAccount().get("accountNumber");
+        for (int i = 0; i < deposits; i++) {
+            accountService.cashDeposit(accountNumber, DEFAULT_PIN, new BigDecimal("100.00"));
+        }
+        for (int i = 0; i < withdrawals; i++) {
+            accountService.cashWithdrawal(accountNumber, DEFAULT_PIN, new BigDecimal("10.00"));
+        }
+        return accountNumber;
+    }
+
+}
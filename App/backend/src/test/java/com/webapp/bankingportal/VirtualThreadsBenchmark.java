@@ -0,0 +1,132 @@
+package com.webapp.bankingportal;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.webapp.bankingportal.repository.UserRepository;
+import com.webapp.bankingportal.service.AccountService;
+import com.webapp.bankingportal.service.TokenService;
+
+import lombok.val;
+
+/**
+ * Serves 2,000 concurrent clients from the application itself, with
+ * spring.threads.virtual.enabled off and on. The application boots with the
+ * test profile on a random port, and every client calls a real endpoint
+ * over HTTP, so each request goes through Tomcat, the security filters and
+ * the JWT check, and takes a connection from the production-sized Hikari
+ * pool. The concurrency limit filter is turned off, so requests queue
+ * instead of being shed. Virtual threads need Java 21; on older runtimes
+ * both modes use Tomcat's platform threads. Not run by the test suite;
+ * start it with
+ * <pre>
+ * mvn -Pjava21 test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.webapp.bankingportal.VirtualThreadsBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class VirtualThreadsBenchmark {
+
+    private static final int CLIENTS = 2000;
+    private static final String DEFAULT_PIN = "0000";
+
+    @Param({ "false", "true" })
+    public boolean virtualThreads;
+
+    @Param({ "/api/account/balance", "/api/account/transactions?limit=20" })
+    public String endpoint;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest request;
+
+    @Setup
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(BankingportalApplication.class)
+                .profiles("test")
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.datasource.hikari.maximum-pool-size=10",
+                        "--concurrency-limit.enabled=false",
+                        "--spring.sql.init.mode=never",
+                        "--spring.jpa.show-sql=false");
+
+        val user = BaseTest.createUser();
+        user.setCountryCode("IN");
+        user.setPhoneNumber(BaseTest.getRandomPhoneNumber("IN"));
+        user.setPassword(context.getBean(PasswordEncoder.class).encode(user.getPassword()));
+        context.getBean(UserRepository.class).save(user);
+
+        val accountService = context.getBean(AccountService.class);
+        val accountNumber = accountService.createAccount(user).getAccountNumber();
+        for (int i = 0; i < 20; i++) {
+            accountService.cashDeposit(accountNumber, DEFAULT_PIN, new BigDecimal("100.00"));
+        }
+        val token = context.getBean(TokenService.class).generateAndSaveToken(accountNumber);
+
+        val port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + endpoint))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CLIENTS)
+    public void serveClients() {
+        val responses = new ArrayList<CompletableFuture<HttpResponse<Void>>>(CLIENTS);
+        for (int i = 0; i < CLIENTS; i++) {
+            responses.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+
+        for (val response : responses) {
+            val status = response.join().statusCode();
+            if (status != 200) {
+                throw new IllegalStateException("Request failed with status " + status);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(VirtualThreadsBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}